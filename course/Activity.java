@@ -18,17 +18,41 @@ public abstract class Activity implements Conflict {
 	 */
 	public static final int UPPER_MIN = 60;
 	
+	/**
+	 * Days of the week in the order of their bits in a meeting days mask, starting with Sunday
+	 */
+	public static final String WEEK_DAYS = "UMTWHFS";
+	
 	/** Course's title. */
 	private String title;
 	
-	/** Course's meeting days */
+	/** Course's meeting days as given, kept for display and the CSV formats */
 	private String meetingDays;
 	
-	/** Course's starting time */
-	private int startTime;
+	/** Course's meeting days with one bit per day of the week, 0 for arranged */
+	private int meetingDaysMask;
+	
+	/** Course's starting time in minutes since midnight */
+	private int startMinute;
+	
+	/** Course's ending time in minutes since midnight */
+	private int endMinute;
+	
+	/** Every minute of the day formatted as it is shown in a meeting string, such as 1:30PM */
+	private static final String[] TIME_STRINGS = createTimeStrings();
+	
+	/** Meeting string of the activity, or null until it is next asked for */
+	private String meetingString;
+	
+	/** Short display row of the activity, or null until it is next asked for.  Volatile so a
+	 * row built on one thread is seen complete by the others sharing the activity. */
+	private volatile String[] shortDisplay;
+	
+	/** Long display row of the activity, or null until it is next asked for */
+	private volatile String[] longDisplay;
 	
-	/** Course's ending time */
-	private int endTime;
+	/** True once the activity is shared, such as by a catalog, after which the setters throw */
+	private volatile boolean frozen;
 
 	/**
 	 * The Activity class' constructor
@@ -57,17 +81,25 @@ public abstract class Activity implements Conflict {
 	 * @param title the title to set
 	 * @throws IllegalArgumentException with the message "Invalid title" if
 	 * the title parameter is null or empty
+	 * @throws IllegalStateException if the activity is frozen
 	 */
 	public void setTitle(String title) {
-		if(title == null) {
-			throw new IllegalArgumentException("Invalid title.");
-		}
-		
-		if(title.length() == 0) {
+		checkNotFrozen();
+		if(!isValidTitle(title)) {
 			throw new IllegalArgumentException("Invalid title.");
 		}
 		
 		this.title = title;
+		clearDisplayCache();
+	}
+	
+	/**
+	 * Returns true if the title can be used for an activity
+	 * @param title the title to check
+	 * @return false if the title is null or empty
+	 */
+	public static boolean isValidTitle(String title) {
+		return title != null && title.length() != 0;
 	}
 
 	/**
@@ -83,7 +115,7 @@ public abstract class Activity implements Conflict {
 	 * @return the startTime
 	 */
 	public int getStartTime() {
-		return startTime;
+		return startMinute / UPPER_MIN * 100 + startMinute % UPPER_MIN;
 	}
 
 	/**
@@ -91,7 +123,45 @@ public abstract class Activity implements Conflict {
 	 * @return the endTime
 	 */
 	public int getEndTime() {
-		return endTime;
+		return endMinute / UPPER_MIN * 100 + endMinute % UPPER_MIN;
+	}
+	
+	/**
+	 * Returns the Course's meeting days as a mask with the bit from {@link #dayBit(char)} set
+	 * for every meeting day.  Arranged courses have no meeting days.
+	 * @return the meetingDaysMask
+	 */
+	public int getMeetingDaysMask() {
+		return meetingDaysMask;
+	}
+	
+	/**
+	 * Returns the Course's start time in minutes since midnight
+	 * @return the startMinute
+	 */
+	public int getStartMinute() {
+		return startMinute;
+	}
+	
+	/**
+	 * Returns the Course's end time in minutes since midnight
+	 * @return the endMinute
+	 */
+	public int getEndMinute() {
+		return endMinute;
+	}
+	
+	/**
+	 * Returns the bit used for a day in a meeting days mask
+	 * @param day one of the characters in {@link #WEEK_DAYS}
+	 * @return the day's bit, or 0 if the character is not a day of the week
+	 */
+	public static int dayBit(char day) {
+		int i = WEEK_DAYS.indexOf(day);
+		if(i < 0) {
+			return 0;
+		}
+		return 1 << i;
 	}
 
 	/**
@@ -104,43 +174,71 @@ public abstract class Activity implements Conflict {
 	 *                                  - startTime is greater than endTime
 	 *                                  - startTime or endTime is outside the valid range of 0000 to 2359
 	 *                                  - if meetingDays is "A" (arranged), startTime and endTime must be 0
+	 * @throws IllegalStateException if the activity is frozen
 	 */
 	public void setMeetingDaysAndTime(String meetingDays, int startTime, int endTime) {
-		if(meetingDays == null || "".equals(meetingDays)) {
+		checkNotFrozen();
+		if(!isValidTimes(meetingDays, startTime, endTime)) {
 			throw new IllegalArgumentException("Invalid meeting days and times.");
 		}
 		
+		if("A".equals(meetingDays)) {
+			this.startMinute = 0;
+			this.endMinute = 0;
+		} else {	
+			this.startMinute = startTime / 100 * UPPER_MIN + startTime % 100;
+			this.endMinute = endTime / 100 * UPPER_MIN + endTime % 100;
+		}
+		
+		int mask = 0;
+		for(int i = 0; i < meetingDays.length(); i++) {
+			mask |= dayBit(meetingDays.charAt(i));
+		}
+		this.meetingDaysMask = mask;
+		this.meetingDays = meetingDays;
+		clearDisplayCache();
+	}
+
+	/**
+	 * Returns true if the meeting days and times follow the rules every activity has, without
+	 * checking which days are allowed
+	 * @param meetingDays meeting days for the activity
+	 * @param startTime start time for the activity
+	 * @param endTime end time for the activity
+	 * @return false if:
+	 * 									- meetingDays is null or empty
+	 *                                  - startTime is greater than endTime
+	 *                                  - startTime or endTime is outside the valid range of 0000 to 2359
+	 *                                  - the minutes of startTime or endTime are 60 or more
+	 *                                  - if meetingDays is "A" (arranged), startTime and endTime are not 0
+	 */
+	public static boolean isValidTimes(String meetingDays, int startTime, int endTime) {
+		if(meetingDays == null || "".equals(meetingDays)) {
+			return false;
+		}
+		
 		if(startTime > endTime) {
-			throw new IllegalArgumentException("Invalid meeting days and times.");
+			return false;
 		}
 		
 		if(startTime > 2359 || startTime < 0 || endTime > 2359 || endTime < 0) {
-			throw new IllegalArgumentException("Invalid meeting days and times.");
+			return false;
 		}
 		
 		if("A".equals(meetingDays)) {
-			if(startTime != 0 || endTime != 0) {
-				throw new IllegalArgumentException("Invalid meeting days and times.");
-			}
-			this.startTime = 0;
-			this.endTime = 0;
-		} else {	
-			int stHour = (int) startTime / 100;
-			int stMin = startTime % 100;
-			int etHour = (int) endTime / 100;
-			int etMin = endTime % 100;
-			
-			if(stHour < 0 || stHour >= UPPER_HOUR || etHour < 0 || etHour >= UPPER_HOUR) {
-				throw new IllegalArgumentException("Invalid meeting days and times.");
-			}
-			
-			if(stMin < 0 || stMin >= UPPER_MIN || etMin < 0 || etMin >= UPPER_MIN) {
-				throw new IllegalArgumentException("Invalid meeting days and times.");
-			}
-			this.startTime = startTime;
-			this.endTime = endTime;
+			return startTime == 0 && endTime == 0;
+		}
+		
+		int stHour = startTime / 100;
+		int stMin = startTime % 100;
+		int etHour = endTime / 100;
+		int etMin = endTime % 100;
+		
+		if(stHour < 0 || stHour >= UPPER_HOUR || etHour < 0 || etHour >= UPPER_HOUR) {
+			return false;
 		}
-		this.meetingDays = meetingDays;		
+		
+		return stMin >= 0 && stMin < UPPER_MIN && etMin >= 0 && etMin < UPPER_MIN;
 	}
 
 	/**
@@ -148,59 +246,72 @@ public abstract class Activity implements Conflict {
 	 * @return String of course timings and days
 	 */
 	public String getMeetingString() {
-		String mtString = "";
-		
-		// Converting military time to standard time
-		int stHour = (int) startTime / 100;
-		int stMin = startTime % 100;
-		int etHour = (int) endTime / 100;
-		int etMin = endTime % 100;
-		
-		String stHourConv = "";
-		String etHourConv = "";
-		
-		String stMinConv = "";
-		String etMinConv = "";
-		
-		if(stMin < 10) {
-			stMinConv = "0" + stMin;
-		} else {
-	        stMinConv = "" + stMin;
-	    }
-		if(etMin < 10) {
-			etMinConv = "0" + etMin;
-		} else {
-	        etMinConv = "" + etMin;
-	    }
-		
-		if(stHour - 12 == 12) {
-			stHourConv = "0:" + stMinConv + "AM";
-		} else if (stHour == 12) {
-			stHourConv = stHour + ":" + stMinConv + "PM";
-		} else if(stHour > 12) {
-			stHourConv = (stHour - 12) + ":" + stMinConv + "PM";
-		} else {
-			stHourConv = stHour + ":" + stMinConv + "AM";
+		if(meetingString == null) {
+			if("A".equals(meetingDays)) {
+				meetingString = "Arranged";
+			} else {
+				meetingString = this.meetingDays + " " + TIME_STRINGS[startMinute] + "-" + TIME_STRINGS[endMinute];
+			}
 		}
-		
-		
-		if(etHour - 12 == 12) {
-			etHourConv = "0:" + etMinConv + "AM";
-		} else if (etHour == 12) {
-			etHourConv = etHour + ":" + etMinConv + "PM";
-		} else if(etHour > 12) {
-			etHourConv = (etHour - 12) + ":" + etMinConv + "PM";
-		} else {
-			etHourConv = etHour + ":" + etMinConv + "AM";
+		return meetingString;
+	}
+	
+	/**
+	 * Formats every minute of the day in standard time
+	 * @return array of the formatted times indexed by minutes since midnight
+	 */
+	private static String[] createTimeStrings() {
+		String[] times = new String[UPPER_HOUR * UPPER_MIN];
+		for(int minute = 0; minute < times.length; minute++) {
+			int hour = minute / UPPER_MIN;
+			int min = minute % UPPER_MIN;
+			String minConv = min < 10 ? "0" + min : "" + min;
+			
+			if (hour == 12) {
+				times[minute] = hour + ":" + minConv + "PM";
+			} else if(hour > 12) {
+				times[minute] = (hour - 12) + ":" + minConv + "PM";
+			} else {
+				times[minute] = hour + ":" + minConv + "AM";
+			}
 		}
-		
-		if("A".equals(meetingDays)) {
-			mtString = "Arranged";
-		} else {
-			mtString = this.meetingDays + " " + stHourConv + "-" + etHourConv;
+		return times;
+	}
+	
+	/**
+	 * Stops the activity from being changed, so it can be shared by several schedules and
+	 * threads.  Every setter throws once the activity is frozen, and it cannot be unfrozen.
+	 */
+	public void freeze() {
+		frozen = true;
+	}
+	
+	/**
+	 * Returns true if the activity can no longer be changed
+	 * @return true if the activity is frozen
+	 */
+	public boolean isFrozen() {
+		return frozen;
+	}
+	
+	/**
+	 * Called at the start of every setter so a frozen activity is never changed
+	 * @throws IllegalStateException if the activity is frozen
+	 */
+	protected void checkNotFrozen() {
+		if(frozen) {
+			throw new IllegalStateException("The activity cannot be changed.");
 		}
-			
-		return mtString;
+	}
+	
+	/**
+	 * Drops the meeting string and display rows so they are built again the next time they
+	 * are asked for.  Called by every setter that changes a displayed value.
+	 */
+	protected void clearDisplayCache() {
+		meetingString = null;
+		shortDisplay = null;
+		longDisplay = null;
 	}
 	
 	/**
@@ -220,47 +331,28 @@ public abstract class Activity implements Conflict {
 	 */
 	@Override
 	public void checkConflict(Activity possibleConflictingActivity) throws ConflictException {
-		//Activity a = new Event(this.title, this.meetingDays, this.startTime, this.endTime, "");
-		boolean flag = false; 
-		for(int i = 0; i < meetingDays.length(); i++) {
-			char day = meetingDays.charAt(i);
-			if(day == 'A') {
-				break; 
-			}
-			for(int j = 0; j < possibleConflictingActivity.meetingDays.length(); j++) {
-				if(day == possibleConflictingActivity.meetingDays.charAt(j)) {
-					flag = true;
-					break;
-				}
-			}
+		if(conflictsWith(possibleConflictingActivity)) {
+			throw new ConflictException();
 		}
-		
-		if(flag) {
-			if(this.getStartTime() == possibleConflictingActivity.getEndTime() || 
-					this.getEndTime() == possibleConflictingActivity.getStartTime()) {
-				throw new ConflictException("Schedule conflict."); 
-			}
-			
-			if (this.getStartTime() >= possibleConflictingActivity.getStartTime()
-					&& this.getEndTime() <= possibleConflictingActivity.getEndTime()) {
-				throw new ConflictException();
-			}
-			
-			if(this.getStartTime() <= possibleConflictingActivity.getStartTime()
-					&& this.getEndTime() >= possibleConflictingActivity.getEndTime()) {
-				throw new ConflictException();
-			}
-			
-			if(this.getStartTime() >= possibleConflictingActivity.getStartTime() && this.getStartTime() <=
-					possibleConflictingActivity.getEndTime()) {
-				throw new ConflictException("Schedule conflict.");
-			}
-			
-			if(this.getEndTime() >= possibleConflictingActivity.getStartTime() && this.getEndTime() <=
-					possibleConflictingActivity.getEndTime()) {
-				throw new ConflictException("Schedule conflict.");
-			}
+	}
+	
+	/**
+	 * This overridden method from the Conflict interface checks if the two activities share a
+	 * meeting day and their times overlap, without throwing an exception.
+	 * @param possibleConflictingActivity to which we are comparing to the schedule
+	 * @return true if the activity timings are overlapping, including when one activity starts
+	 * at the minute the other one ends
+	 */
+	@Override
+	public boolean conflictsWith(Activity possibleConflictingActivity) {
+		//Arranged activities have no days, so they never share a day with another activity
+		if((meetingDaysMask & possibleConflictingActivity.meetingDaysMask) == 0) {
+			return false;
 		}
+		
+		//Activities that touch at the start or end minute are also a conflict
+		return startMinute <= possibleConflictingActivity.endMinute 
+				&& possibleConflictingActivity.startMinute <= endMinute;
 	}
 
 	/**
@@ -271,9 +363,9 @@ public abstract class Activity implements Conflict {
 	public int hashCode() {
 		final int prime = 31;
 		int result = 1;
-		result = prime * result + endTime;
+		result = prime * result + getEndTime();
 		result = prime * result + ((meetingDays == null) ? 0 : meetingDays.hashCode());
-		result = prime * result + startTime;
+		result = prime * result + getStartTime();
 		result = prime * result + ((title == null) ? 0 : title.hashCode());
 		return result;
 	}
@@ -292,14 +384,14 @@ public abstract class Activity implements Conflict {
 		if (getClass() != obj.getClass())
 			return false;
 		Activity other = (Activity) obj;
-		if (endTime != other.endTime)
+		if (endMinute != other.endMinute)
 			return false;
 		if (meetingDays == null) {
 			if (other.meetingDays != null)
 				return false;
 		} else if (!meetingDays.equals(other.meetingDays))
 			return false;
-		if (startTime != other.startTime)
+		if (startMinute != other.startMinute)
 			return false;
 		if (title == null) {
 			if (other.title != null)
@@ -310,15 +402,43 @@ public abstract class Activity implements Conflict {
 	}
 	
 	/**
-	 * Outputs a string array of length 4 with the courses title, meeting string, and event details
+	 * Outputs a string array of length 4 with the courses title, meeting string, and event details.
+	 * The row is built once and kept until a displayed value changes.
 	 * @return String array
 	 */
-	public abstract String[] getShortDisplayArray();
+	public String[] getShortDisplayArray() {
+		String[] display = shortDisplay;
+		if(display == null) {
+			display = createShortDisplayArray();
+			shortDisplay = display;
+		}
+		return display.clone();
+	}
 	
 	/**
-	 * Outputs a string array of length 7 with the courses title, meeting string, and event details
+	 * Outputs a string array of length 7 with the courses title, meeting string, and event details.
+	 * The row is built once and kept until a displayed value changes.
 	 * @return String array
 	 */
-	public abstract String[] getLongDisplayArray();
+	public String[] getLongDisplayArray() {
+		String[] display = longDisplay;
+		if(display == null) {
+			display = createLongDisplayArray();
+			longDisplay = display;
+		}
+		return display.clone();
+	}
+	
+	/**
+	 * Builds the short display row of the activity
+	 * @return String array of length 4
+	 */
+	protected abstract String[] createShortDisplayArray();
+	
+	/**
+	 * Builds the long display row of the activity
+	 * @return String array of length 7
+	 */
+	protected abstract String[] createLongDisplayArray();
 
 }
\ No newline at end of file
@@ -5,6 +5,7 @@ package edu.ncsu.csc216.wolf_scheduler.course;
 
 /**
  * This interface checks for possible schedule conflicts and avoids them by throwing ConflictExceptions
+ * or by returning whether there is a conflict
  * @author Riya Gunda
  */
 public interface Conflict {
@@ -16,4 +17,13 @@ public interface Conflict {
 	 * schedule
 	 */
 	void checkConflict(Activity possibleConflictingActivity) throws ConflictException;
+	
+	/**
+	 * This method compares the timings of the activity to be added the same way as checkConflict,
+	 * but reports a conflict through its return value instead of an exception, so it can be called
+	 * for every candidate on a hot path without building exceptions
+	 * @param possibleConflictingActivity holds the activity to be added to the schedule
+	 * @return true if the activity clashes with this one
+	 */
+	boolean conflictsWith(Activity possibleConflictingActivity);
 }
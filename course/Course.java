@@ -52,6 +52,11 @@ public class Course extends Activity {
 	 */
 	public static final int MIN_CREDITS = 1;
 	
+	/**
+	 * Mask of the days a course can meet on, Monday through Friday
+	 */
+	public static final int COURSE_DAYS = dayBit('M') | dayBit('T') | dayBit('W') | dayBit('H') | dayBit('F');
+	
 	/** Course's name. */
 	private String name;
 	
@@ -115,21 +120,31 @@ public class Course extends Activity {
 	 * @throws IllegalArgumentException if the name parameter is invalid
 	 */
 	private void setName(String name) {
-		if(name == null || name.length() == 0) {
+		if(!isValidName(name)) {
 			throw new IllegalArgumentException("Invalid course name.");
 		}
 		
-		if(name.length() < MIN_NAME_LENGTH  || name.length() > MAX_NAME_LENGTH) {
-			throw new IllegalArgumentException("Invalid course name.");
+		this.name = name;
+		clearDisplayCache();
+	}
+	
+	/**
+	 * Returns true if the name can be used for a course, following the rules in setName
+	 * @param name the name to check
+	 * @return false if the name is invalid
+	 */
+	public static boolean isValidName(String name) {
+		if(name == null || name.length() == 0) {
+			return false;
 		}
 		
-		if(" ".equals(name.substring(0, 1))) {
-			throw new IllegalArgumentException("Invalid course name.");
+		if(name.length() < MIN_NAME_LENGTH  || name.length() > MAX_NAME_LENGTH) {
+			return false;
 		}
 		
 		char test = name.charAt(0);
-		if(Character.isDigit(test)) {
-			throw new IllegalArgumentException("Invalid course name.");
+		if(test == ' ' || Character.isDigit(test)) {
+			return false;
 		}
 		
 		boolean space = false;
@@ -143,26 +158,22 @@ public class Course extends Activity {
 				} else if(name.charAt(i) == ' ') {
 					space = true;
 				} else {
-					throw new IllegalArgumentException("Invalid course name.");
+					return false;
 				}
-			} else if(space) {
+			} else {
 				if(Character.isDigit(name.charAt(i))) {
 					counterD++;
 				} else {
-					throw new IllegalArgumentException("Invalid course name.");
+					return false;
 				}
 			}
 		}
 		
 		if (counterL < MIN_LETTER_COUNT || counterL > MAX_LETTER_COUNT) {
-			throw new IllegalArgumentException("Invalid course name.");
+			return false;
 		}
 		
-		if (counterD != 3) {
-			throw new IllegalArgumentException("Invalid course name.");
-		}	
-		
-		this.name = name;
+		return counterD == DIGIT_COUNT;
 	}
 
 	/**
@@ -181,23 +192,33 @@ public class Course extends Activity {
 	 * if the section parameter is not equal to 3
 	 * @throws IllegalArgumentException with the message "Invalid section" 
 	 * if the section parameter is not a digit
+	 * @throws IllegalStateException if the course is frozen
 	 */
 	public void setSection(String section) {
-		if(section == null) {
+		checkNotFrozen();
+		if(!isValidSection(section)) {
 			throw new IllegalArgumentException("Invalid section.");
 		}
-		
-		if(section.length() != SECTION_LENGTH) {
-			throw new IllegalArgumentException("Invalid section.");
+		this.section = section;
+		clearDisplayCache();
+	}
+	
+	/**
+	 * Returns true if the section can be used for a course
+	 * @param section the section to check
+	 * @return false if the section is null, is not 3 characters long or is not all digits
+	 */
+	public static boolean isValidSection(String section) {
+		if(section == null || section.length() != SECTION_LENGTH) {
+			return false;
 		}
 		
 		for(int i = 0; i < section.length(); i++) {
-			char holder = section.charAt(i);
-			if(!Character.isDigit(holder)) {
-				throw new IllegalArgumentException("Invalid section.");
+			if(!Character.isDigit(section.charAt(i))) {
+				return false;
 			}
 		}
-		this.section = section;
+		return true;
 	}
 
 	/**
@@ -213,17 +234,25 @@ public class Course extends Activity {
 	 * @param credits the credits to set
 	 * @throws IllegalArgumentException with the message "Invalid credits" if the value of
 	 * the credits variable is invalid
+	 * @throws IllegalStateException if the course is frozen
 	 */
 	public void setCredits(int credits) {
-		if(credits < MIN_CREDITS || credits > MAX_CREDITS) {
-			throw new IllegalArgumentException("Invalid credits.");
-		}
-		Integer a = credits;
-		if(!(a instanceof Integer)){
+		checkNotFrozen();
+		if(!isValidCredits(credits)) {
 			throw new IllegalArgumentException("Invalid credits.");
 		}
 		
 		this.credits = credits;
+		clearDisplayCache();
+	}
+	
+	/**
+	 * Returns true if the credits can be used for a course
+	 * @param credits the credits to check
+	 * @return false if the credits are less than 1 or more than 5
+	 */
+	public static boolean isValidCredits(int credits) {
+		return credits >= MIN_CREDITS && credits <= MAX_CREDITS;
 	}
 
 	/**
@@ -239,19 +268,32 @@ public class Course extends Activity {
 	 * @param instructorId the instructorId to set
 	 * @throws IllegalArgumentException with the message "Invalid instructor id." if the 
 	 * the instructor id value is null or the string is empty
+	 * @throws IllegalStateException if the course is frozen
 	 */
 	public void setInstructorId(String instructorId) {
-		if(instructorId == null || "".equals(instructorId)) {
+		checkNotFrozen();
+		if(!isValidInstructorId(instructorId)) {
 			throw new IllegalArgumentException("Invalid instructor id.");
 		}
 		this.instructorId = instructorId;
+		clearDisplayCache();
+	}
+	
+	/**
+	 * Returns true if the instructor ID can be used for a course
+	 * @param instructorId the instructorId to check
+	 * @return false if the instructor ID is null or empty
+	 */
+	public static boolean isValidInstructorId(String instructorId) {
+		return instructorId != null && !"".equals(instructorId);
 	}
 	
 	/**
 	 * Displays an array with the course's name, section, title, and meeting string.
 	 * @return a string array
 	 */
-	public String[] getShortDisplayArray() {
+	@Override
+	protected String[] createShortDisplayArray() {
 		String[] dispArr = new String[4];
 		
 		dispArr[0] = getName();
@@ -266,7 +308,8 @@ public class Course extends Activity {
 	 * Displays an array with the course's name, section, title, credits, instructor ID, and meeting string
 	 * @return a string array with 7 elements
 	 */
-	public String[] getLongDisplayArray() {
+	@Override
+	protected String[] createLongDisplayArray() {
 		String[] dispArr = new String[7];
 		
 		dispArr[0] = getName();
@@ -353,40 +396,53 @@ public class Course extends Activity {
 	 * 										- meetingDays is not M,T,W,H,F or A
 	 * 										- meetingDays is A and the strings length is not 1
 	 * 										- The same day is repeated more than once in the string
+	 * @throws IllegalStateException if the course is frozen
 	 */
 	public void setMeetingDaysAndTime(String meetingDays, int startTime, int endTime) {
-		int countM = 0;
-		int countT = 0;
-		int countW = 0;
-		int countH = 0;
-		int countF = 0;
-		int countA = 0;
+		checkNotFrozen();
+		if(!isValidCourseDays(meetingDays)) {
+			throw new IllegalArgumentException("Invalid meeting days and times.");
+		}
+		
+		super.setMeetingDaysAndTime(meetingDays, startTime, endTime);
+	}
+	
+	/**
+	 * Returns true if the meeting days and times can be used for a course, following the rules
+	 * in setMeetingDaysAndTime and {@link Activity#isValidTimes(String, int, int)}
+	 * @param meetingDays meeting days for the course
+	 * @param startTime start time for the course
+	 * @param endTime end time for the course
+	 * @return false if the meeting days and times are invalid
+	 */
+	public static boolean isValidMeetingDaysAndTime(String meetingDays, int startTime, int endTime) {
+		return meetingDays != null && isValidCourseDays(meetingDays) && isValidTimes(meetingDays, startTime, endTime);
+	}
+	
+	/**
+	 * Returns true if every meeting day is M, T, W, H or F with no day repeated, or the
+	 * meeting days are only A
+	 * @param meetingDays meeting days for the course
+	 * @return false if the meeting days are not allowed for a course
+	 */
+	private static boolean isValidCourseDays(String meetingDays) {
+		int mask = 0;
 		
 		for(int i = 0; i < meetingDays.length(); i++) {
-			String md = meetingDays.substring(i, i + 1);
-			if("M".equals(md)) {
-				countM++;
-			} else if("T".equals(md)) {
-				countT++;
-			} else if("W".equals(md)) {
-				countW++;
-			} else if("H".equals(md)) {
-				countH++;
-			} else if("F".equals(md)) {
-				countF++;
-			} else if("A".equals(md)) {
+			char day = meetingDays.charAt(i);
+			if(day == 'A') {
 				if(meetingDays.length() != 1) {
-					throw new IllegalArgumentException("Invalid meeting days and times.");
+					return false;
 				}
-			} else {
-				throw new IllegalArgumentException("Invalid meeting days and times.");
+				continue;
 			}
+			
+			int bit = dayBit(day);
+			if((bit & COURSE_DAYS) == 0 || (mask & bit) != 0) {
+				return false;
+			}
+			mask |= bit;
 		}
-		
-		if(countM > 1 || countT > 1 || countW > 1 || countH > 1 || countF > 1 || countA > 1) {
-			throw new IllegalArgumentException("Invalid meeting days and times.");
-		}
-		
-		super.setMeetingDaysAndTime(meetingDays, startTime, endTime);
+		return true;
 	}
 }
@@ -41,20 +41,24 @@ public class Event extends Activity {
 	 * @param eventDetails of the course
 	 * @throws IllegalArgumentException with the message "Invalid event details." if the details
 	 * are invalid
+	 * @throws IllegalStateException if the event is frozen
 	 */
 	public void setEventDetails(String eventDetails) {
+		checkNotFrozen();
 		if(eventDetails == null) {
 			throw new IllegalArgumentException("Invalid event details.");
 		}
 		
 		this.eventDetails = eventDetails;
+		clearDisplayCache();
 	}
 
 	/**
 	 * Outputs a string array of length 4 with the courses title and meeting string
 	 * @return String array
 	 */
-	public String[] getShortDisplayArray() {
+	@Override
+	protected String[] createShortDisplayArray() {
 		String[] dispArr = new String[4];
 		
 		dispArr[0] = "";
@@ -69,7 +73,8 @@ public class Event extends Activity {
 	 * Outputs a string array of length 7 with the courses title, meeting string, and event details
 	 * @return String array
 	 */
-	public String[] getLongDisplayArray() {
+	@Override
+	protected String[] createLongDisplayArray() {
 		String[] dispArr = new String[7];
 		
 		dispArr[0] = "";
@@ -92,9 +97,11 @@ public class Event extends Activity {
 	 * @throws IllegalArgumentException with the message "Invalid meeting days and times." if the meetignDays
 	 * string is null, empty, 'A', not M,T,W,H,F,S, or U, start time is greater than end time, start and end 
 	 * times exceed the 24 hour clock values
+	 * @throws IllegalStateException if the event is frozen
 	 */
 	@Override
 	public void setMeetingDaysAndTime(String meetingDays, int startTime, int endTime) {
+		checkNotFrozen();
 		if("A".equals(meetingDays)) {
 			throw new IllegalArgumentException("Invalid meeting days and times."); 
 		}
@@ -111,38 +118,14 @@ public class Event extends Activity {
 			throw new IllegalArgumentException("Invalid meeting days and times.");
 		}
 			
-		int countM = 0;
-		int countT = 0;
-		int countW = 0;
-		int countH = 0;
-		int countF = 0;
-		int countS = 0;
-		int countU = 0;
+		int mask = 0;
 		
 		for(int i = 0; i < meetingDays.length(); i++) {
-			String md = meetingDays.substring(i, i + 1);
-			if("M".equals(md)) {
-				countM++;
-			} else if("T".equals(md)) {
-				countT++;
-			} else if("W".equals(md)) {
-				countW++;
-			} else if("H".equals(md)) {
-				countH++;
-			} else if("F".equals(md)) {
-				countF++;
-			} else if("S".equals(md)) {
-				countS++;	
-			} else if("U".equals(md)) {
-				countU++;
-			} 			else {
+			int bit = dayBit(meetingDays.charAt(i));
+			if(bit == 0 || (mask & bit) != 0) {
 				throw new IllegalArgumentException("Invalid meeting days and times.");
 			}
-		}
-		
-		if(countM > 1 || countT > 1 || countW > 1 || countH > 1 || countF > 1 || countS > 1 
-				|| countU > 1) {
-			throw new IllegalArgumentException("Invalid meeting days and times.");
+			mask |= bit;
 		}
 		
 		super.setMeetingDaysAndTime(meetingDays, startTime, endTime);
@@ -0,0 +1,18 @@
+package edu.ncsu.csc216.wolf_scheduler.io;
+
+/**
+ * Receives the changes to a course catalog file found by a {@link CourseRecordWatcher}.
+ *
+ * @author Riya Gunda
+ */
+public interface CourseRecordChangeListener {
+
+	/**
+	 * Called with the courses of the first load of the file, all as added courses, and then
+	 * every time a change to the file adds, removes or modifies a course.  The first call is
+	 * made on the thread creating the watcher and later ones on the watcher's thread, one at a
+	 * time and in the order the changes were found.
+	 * @param changes differences from the previous load of the file
+	 */
+	void coursesChanged(CourseRecordChanges changes);
+}
@@ -0,0 +1,111 @@
+package edu.ncsu.csc216.wolf_scheduler.io;
+
+import java.util.Collections;
+import java.util.List;
+
+import edu.ncsu.csc216.wolf_scheduler.course.Course;
+
+/**
+ * Difference between two loads of the same course catalog file, found by a
+ * {@link CourseRecordWatcher}.  Courses are matched between the loads by name and section.
+ *
+ * @author Riya Gunda
+ */
+public final class CourseRecordChanges {
+
+	/** Every course in the file after the change, in file order */
+	private final List<Course> courses;
+
+	/** Courses whose name and section were not in the file before */
+	private final List<Course> added;
+
+	/** Courses whose name and section are no longer in the file */
+	private final List<Course> removed;
+
+	/** New versions of the courses whose name and section stayed but whose other fields changed */
+	private final List<Course> modified;
+
+	/** Counts for the whole file after the change */
+	private final CourseRecordStats stats;
+
+	/** Number of lines that had to be parsed, because they were not in the file before */
+	private final int linesParsed;
+
+	/**
+	 * Constructs the changes found by a reload
+	 * @param courses every course in the file after the change
+	 * @param added courses that are new
+	 * @param removed courses that are gone
+	 * @param modified new versions of the courses that changed
+	 * @param stats counts for the whole file
+	 * @param linesParsed number of lines parsed
+	 */
+	CourseRecordChanges(List<Course> courses, List<Course> added, List<Course> removed,
+			List<Course> modified, CourseRecordStats stats, int linesParsed) {
+		this.courses = Collections.unmodifiableList(courses);
+		this.added = Collections.unmodifiableList(added);
+		this.removed = Collections.unmodifiableList(removed);
+		this.modified = Collections.unmodifiableList(modified);
+		this.stats = stats;
+		this.linesParsed = linesParsed;
+	}
+
+	/**
+	 * Returns every course in the file after the change, in file order
+	 * @return unmodifiable list of the courses
+	 */
+	public List<Course> getCourses() {
+		return courses;
+	}
+
+	/**
+	 * Returns the courses whose name and section were not in the file before, in file order
+	 * @return unmodifiable list of the added courses
+	 */
+	public List<Course> getAdded() {
+		return added;
+	}
+
+	/**
+	 * Returns the courses whose name and section are no longer in the file, in their old order
+	 * @return unmodifiable list of the removed courses
+	 */
+	public List<Course> getRemoved() {
+		return removed;
+	}
+
+	/**
+	 * Returns the new versions of the courses that kept their name and section but changed
+	 * another field, in file order
+	 * @return unmodifiable list of the modified courses
+	 */
+	public List<Course> getModified() {
+		return modified;
+	}
+
+	/**
+	 * Returns the counts of lines read, invalid lines and duplicates dropped for the whole
+	 * file after the change
+	 * @return stats for the file
+	 */
+	public CourseRecordStats getStats() {
+		return stats;
+	}
+
+	/**
+	 * Returns the number of lines that were parsed for this change.  Lines that were already
+	 * in the file before are not parsed again.
+	 * @return number of lines parsed
+	 */
+	public int getLinesParsed() {
+		return linesParsed;
+	}
+
+	/**
+	 * Returns true if no course was added, removed or modified
+	 * @return true if the courses did not change
+	 */
+	public boolean isEmpty() {
+		return added.isEmpty() && removed.isEmpty() && modified.isEmpty();
+	}
+}
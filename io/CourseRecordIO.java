@@ -1,7 +1,22 @@
 package edu.ncsu.csc216.wolf_scheduler.io;
 
+import java.io.File;
 import java.io.FileNotFoundException;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
 import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicBoolean;
+
 import edu.ncsu.csc216.wolf_scheduler.course.Course;
 
 import java.util.Scanner;
@@ -14,6 +29,24 @@ import java.io.FileInputStream;
  * @author Riya Gunda
  */
 public class CourseRecordIO {
+	
+	/** Delimiter between the fields of a course record */
+	private static final char DELIMITER = ',';
+	
+	/** Value returned by parseInt when a field is not a valid int */
+	private static final long NOT_AN_INT = Long.MIN_VALUE;
+	
+	/** Smallest number of bytes worth parsing as a separate chunk of a mapped file */
+	private static final long MIN_CHUNK_SIZE = 1 << 20;
+	
+	/** Largest number of bytes in one chunk, since a mapped region is limited to an int size */
+	private static final long MAX_CHUNK_SIZE = Integer.MAX_VALUE / 2;
+	
+	/** Number of bytes read at a time while looking for the end of a line */
+	private static final int BOUNDARY_SCAN_SIZE = 8192;
+	
+	/** Number of courses given to a {@link CourseRecordListener} at a time */
+	private static final int BATCH_SIZE = 500;
 
     /**
      * Reads course records from a file and generates a list of valid Courses.  Any invalid
@@ -24,144 +57,743 @@ public class CourseRecordIO {
      * @throws FileNotFoundException if the file cannot be found or read
      */
     public static ArrayList<Course> readCourseRecords(String fileName) throws FileNotFoundException {
-    	Scanner fileReader = new Scanner(new FileInputStream(fileName));  //Create a file scanner to read the file
+    	return readCourseRecords(fileName, new CourseRecordStats());
+    }
+    
+    /**
+     * Reads course records from a file and generates a list of valid Courses.  Any invalid
+     * Courses are ignored, and when two courses have the same name and section only the first
+     * one in the file is kept.  The number of lines read, invalid and dropped as duplicates is
+     * recorded in the given stats.
+     * @param fileName file to read Course records from
+     * @param stats counts for the load, updated as the file is read
+     * @return a list of valid Courses
+     * @throws FileNotFoundException if the file cannot be found or read
+     */
+    public static ArrayList<Course> readCourseRecords(String fileName, CourseRecordStats stats) 
+    		throws FileNotFoundException {
+    	return readCourseRecords(fileName, stats, null);
+    }
+    
+    /**
+     * Reads course records from a file like {@link #readCourseRecords(String, CourseRecordStats)},
+     * giving the courses to the listener in batches as they are read.  The listener can stop the
+     * read early, in which case only the courses read so far are returned.
+     * @param fileName file to read Course records from
+     * @param stats counts for the load, updated as the file is read
+     * @param listener told about every batch of courses and the bytes read so far, or null
+     * @return a list of valid Courses
+     * @throws FileNotFoundException if the file cannot be found or read
+     */
+    public static ArrayList<Course> readCourseRecords(String fileName, CourseRecordStats stats, 
+    		CourseRecordListener listener) throws FileNotFoundException {
+    	long fileSize = new File(fileName).length();
+    	CountingInputStream input = new CountingInputStream(new FileInputStream(fileName));
+    	Scanner fileReader = new Scanner(input);  //Create a file scanner to read the file
         ArrayList<Course> courses = new ArrayList<Course>(); //Create an empty array of Course objects
+        ArrayList<Course> batch = new ArrayList<Course>(); //Courses not yet given to the listener
+        HashSet<String> loaded = new HashSet<String>(); //Name and section of every course in the list
         while (fileReader.hasNextLine()) { //While we have more lines in the file
-            try { //Attempt to do the following
-                //Read the line, process it in readCourse, and get the object
-                //If trying to construct a Course in readCourse() results in an exception, flow of control will transfer to the catch block, below
-                Course course = readCourse(fileReader.nextLine()); 
+        	stats.lineRead();
+            //Read the line, process it in readCourse, and get the object
+            //If the line is not a valid course, readCourse records why in stats and returns null
+            Course course = readCourse(fileReader.nextLine(), stats); 
+            if (course == null) {
+            	continue; //The line is invalid, skip it!
+            }
 
-                //Create a flag to see if the newly created Course is a duplicate of something already in the list  
-                boolean duplicate = false;
-                //Look at all the courses in our list
-                for (int i = 0; i < courses.size(); i++) {
-                    //Get the course at index i
-                    Course current = courses.get(i);
-                    //Check if the name and section are the same
-                    if (course.getName().equals(current.getName()) &&
-                            course.getSection().equals(current.getSection())) {
-                        //It's a duplicate!
-                        duplicate = true;
-                        break; //We can break out of the loop, no need to continue searching
-                    }
-                }
-                //If the course is NOT a duplicate
-                if (!duplicate) {
-                    courses.add(course); //Add to the ArrayList!
-                } //Otherwise ignore
-            } catch (IllegalArgumentException e) {
-                //The line is invalid b/c we couldn't create a course, skip it!
+            //The course is a duplicate if its name and section were already loaded
+            if (loaded.add(course.getName() + "," + course.getSection())) {
+                courses.add(course); //Add to the ArrayList!
+                batch.add(course);
+            } else {
+            	stats.duplicateDropped(); //Otherwise ignore, first occurrence wins
+            }
+            
+            if (listener != null && batch.size() == BATCH_SIZE) {
+            	boolean keepReading = listener.coursesRead(batch, input.count, fileSize);
+            	batch = new ArrayList<Course>();
+            	if (!keepReading) {
+            		fileReader.close();
+            		return courses;
+            	}
             }
         }
         //Close the Scanner b/c we're responsible with our file handles
         fileReader.close();
+        if (listener != null) {
+        	listener.coursesRead(batch, fileSize, fileSize);
+        }
         //Return the ArrayList with all the courses we read!
         return courses;
     }
     
     /**
-     * Private helper method to add data to set variables
-     * @param line line read from the input file
-     * @throws IllegalArgumentException if the line is invalid or missing required values
-     * @return Course object
+     * Loads a course catalog file and keeps watching it, telling the listener about the courses
+     * added, removed and modified every time the file changes.  Only the lines that are new or
+     * were edited since the last load are parsed again.
+     * @param fileName file to read Course records from
+     * @param listener told about every course of the first load and then about every change
+     * @return the watcher, which keeps watching the file until it is closed
+     * @throws IOException if the file cannot be found or read, or cannot be watched
+     * @throws IllegalArgumentException if the listener is null
+     */
+    public static CourseRecordWatcher watchCourseRecords(String fileName, 
+    		CourseRecordChangeListener listener) throws IOException {
+    	return new CourseRecordWatcher(fileName, listener);
+    }
+    
+    /**
+     * Input stream that counts the bytes read through it, used to report how far into a file
+     * the reader is.  The count runs ahead of the lines parsed by the size of the read buffer.
+     */
+    private static class CountingInputStream extends FilterInputStream {
+    	
+    	/** Number of bytes read so far */
+    	private long count;
+    	
+    	/**
+    	 * Constructs a stream counting the bytes read from the given stream
+    	 * @param in stream to read from
+    	 */
+    	CountingInputStream(InputStream in) {
+    		super(in);
+    	}
+    	
+    	/**
+    	 * Reads one byte and counts it
+    	 * @return the byte, or -1 at the end of the stream
+    	 * @throws IOException if the stream cannot be read
+    	 */
+    	@Override
+    	public int read() throws IOException {
+    		int b = super.read();
+    		if (b >= 0) {
+    			count++;
+    		}
+    		return b;
+    	}
+    	
+    	/**
+    	 * Reads bytes into part of an array and counts them
+    	 * @param b array to read into
+    	 * @param off first index to read into
+    	 * @param len most bytes to read
+    	 * @return number of bytes read, or -1 at the end of the stream
+    	 * @throws IOException if the stream cannot be read
+    	 */
+    	@Override
+    	public int read(byte[] b, int off, int len) throws IOException {
+    		int n = super.read(b, off, len);
+    		if (n > 0) {
+    			count += n;
+    		}
+    		return n;
+    	}
+    	
+    	/**
+    	 * Skips bytes and counts them as read
+    	 * @param n number of bytes to skip
+    	 * @return number of bytes skipped
+    	 * @throws IOException if the stream cannot be read
+    	 */
+    	@Override
+    	public long skip(long n) throws IOException {
+    		long skipped = super.skip(n);
+    		count += skipped;
+    		return skipped;
+    	}
+    }
+    
+    /**
+     * Reads course records from a file using a memory mapped file and parses the file in chunks
+     * on the {@link ForkJoinPool}.  The courses returned, their order, and the handling of invalid
+     * and duplicate lines are the same as {@link #readCourseRecords(String, CourseRecordStats)}.
+     * @param fileName file to read Course records from
+     * @param stats counts for the load, updated once every chunk has been parsed
+     * @return a list of valid Courses
+     * @throws FileNotFoundException if the file cannot be found or read
+     * @throws IOException if the file cannot be mapped into memory
      */
-    private static Course readCourse(String line) {
-    	Scanner sc = new Scanner(line);
-    	sc.useDelimiter(",");
-    	// check for valid name
+    public static ArrayList<Course> readCourseRecordsMapped(String fileName, CourseRecordStats stats) 
+    		throws IOException {
+    	return readCourseRecordsMapped(fileName, stats, null);
+    }
+    
+    /**
+     * Reads course records from a file like {@link #readCourseRecordsMapped(String, CourseRecordStats)},
+     * giving the courses to the listener in batches as the chunks are merged in file order.  The
+     * bytes read reported with a batch are an estimate within the chunk it came from.  The
+     * listener can stop the read early, in which case the chunks not yet parsed are cancelled
+     * and only the courses merged so far are returned.
+     * @param fileName file to read Course records from
+     * @param stats counts for the load, updated as every chunk is merged
+     * @param listener told about every batch of courses and the bytes read so far, or null
+     * @return a list of valid Courses
+     * @throws FileNotFoundException if the file cannot be found or read
+     * @throws IOException if the file cannot be mapped into memory
+     */
+    public static ArrayList<Course> readCourseRecordsMapped(String fileName, CourseRecordStats stats,
+    		CourseRecordListener listener) throws IOException {
+    	BatchFeed feed = new BatchFeed(listener, new File(fileName).length());
+    	ArrayList<Course> courses = readMapped(fileName, stats, feed);
+    	feed.finish();
+    	return courses;
+    }
+    
+    /**
+     * Reads course records from a mapped file, giving them to a feed as the chunks are merged
+     * @param fileName file to read Course records from
+     * @param stats counts for the load, updated as every chunk is merged
+     * @param feed told about every course, which can stop the read
+     * @return a list of valid Courses, only those merged before the feed stopped if it did
+     * @throws FileNotFoundException if the file cannot be found or read
+     * @throws IOException if the file cannot be mapped into memory
+     */
+    private static ArrayList<Course> readMapped(String fileName, CourseRecordStats stats, BatchFeed feed) 
+    		throws IOException {
+    	FileInputStream input = new FileInputStream(fileName);
+    	ArrayList<ChunkTask> tasks = new ArrayList<ChunkTask>();
+    	AtomicBoolean stop = new AtomicBoolean();
     	try {
-    		String name = "";
-        	String title = "";
-        	String section = "";
-        	int creditHours = 0;
-        	String instructor = "";
-        	String meetingDay = "";
-        	
-        	if(sc.hasNext()) {
-				name = sc.next();
-			} else {
-				sc.close();
-				throw new IllegalArgumentException();
-			}
-			
-			if(sc.hasNext()) {
-				title = sc.next();
-			} else {
-				sc.close();
-				throw new IllegalArgumentException();
-			}
-			
-			if(sc.hasNext()) {
-				section = sc.next();
-			} else {
-				sc.close();
-				throw new IllegalArgumentException();
-			}
-			
-			if(sc.hasNextInt()) {
-				creditHours = sc.nextInt();
-			} else {
-				sc.close();
-				throw new IllegalArgumentException();
+    		FileChannel channel = input.getChannel();
+    		long size = channel.size();
+    		
+    		long chunks = Math.max(size / MIN_CHUNK_SIZE, size / MAX_CHUNK_SIZE + 1);
+    		chunks = Math.max(1, Math.min(chunks, ForkJoinPool.getCommonPoolParallelism() * 4L));
+    		
+    		//Split the file at the ends of lines and parse every chunk in parallel
+    		Charset charset = Charset.defaultCharset();
+    		long start = 0;
+    		for (long i = 1; i <= chunks && start < size; i++) {
+    			long end = i == chunks ? size : lineBoundary(channel, i * size / chunks, size);
+    			if (end > start) {
+    				ChunkTask task = new ChunkTask(channel, start, end, charset, stop);
+    				task.fork();
+    				tasks.add(task);
+    				start = end;
+    			}
+    		}
+    		
+    		//Merge the chunks in file order so the first occurrence of a course still wins
+    		ArrayList<Course> courses = new ArrayList<Course>();
+    		HashSet<String> loaded = new HashSet<String>();
+    		for (int t = 0; t < tasks.size(); t++) {
+    			ChunkTask task = tasks.get(t);
+    			ArrayList<Course> chunk;
+    			try {
+    				chunk = task.join();
+    			} catch (UncheckedIOException e) {
+    				throw e.getCause();
+    			}
+    			stats.add(task.stats);
+    			for (int i = 0; i < chunk.size(); i++) {
+    				Course course = chunk.get(i);
+    				if (!loaded.add(course.getName() + "," + course.getSection())) {
+    					stats.duplicateDropped();
+    					continue;
+    				}
+    				courses.add(course);
+    				if (!feed.add(course, task.start + (task.end - task.start) * (i + 1) / chunk.size())) {
+    					return courses;
+    				}
+    			}
+    		}
+    		return courses;
+    	} finally {
+    		//Chunks still being parsed after a stop or a failure give up at their next line, and
+    		//are waited for so none of them reads the channel once it is closed
+    		stop.set(true);
+    		for (ChunkTask task : tasks) {
+    			task.cancel(false);
+    			task.quietlyJoin();
+    		}
+    		input.close();
+    	}
+    }
+    
+    /**
+     * Reads course records from a file, using the binary snapshot stored next to the file when
+     * the file has not changed since the snapshot was written.  Otherwise the file is read with
+     * {@link #readCourseRecordsMapped(String, CourseRecordStats)} and a new snapshot is written.
+     * A snapshot that cannot be written is skipped, since the courses were still read.
+     * @param fileName file to read Course records from
+     * @param stats counts for the load, the counts from the original load if the snapshot is used
+     * @return a list of valid Courses
+     * @throws FileNotFoundException if the file cannot be found or read
+     * @throws IOException if the file cannot be read
+     */
+    public static ArrayList<Course> readCourseRecordsCached(String fileName, CourseRecordStats stats) 
+    		throws IOException {
+    	return readCourseRecordsCached(fileName, stats, null);
+    }
+    
+    /**
+     * Reads course records from a file like {@link #readCourseRecordsCached(String, CourseRecordStats)},
+     * giving the courses to the listener in batches.  Courses from the snapshot are given with
+     * the bytes read in proportion to the courses given so far, and courses read from the file
+     * as its chunks are merged.  The listener can stop the read early, in which case only the
+     * courses given so far are returned and no snapshot is written.
+     * @param fileName file to read Course records from
+     * @param stats counts for the load, the counts from the original load if the snapshot is used
+     * @param listener told about every batch of courses and the bytes read so far, or null
+     * @return a list of valid Courses
+     * @throws FileNotFoundException if the file cannot be found or read
+     * @throws IOException if the file cannot be read
+     */
+    public static ArrayList<Course> readCourseRecordsCached(String fileName, CourseRecordStats stats,
+    		CourseRecordListener listener) throws IOException {
+    	File catalogFile = new File(fileName);
+    	File snapshotFile = new File(fileName + CourseRecordSnapshot.EXTENSION);
+    	CourseRecordSnapshot snapshot = new CourseRecordSnapshot(catalogFile);
+    	BatchFeed feed = new BatchFeed(listener, catalogFile.length());
+    	
+    	ArrayList<Course> courses = snapshot.read(snapshotFile, stats);
+    	if (courses != null) {
+    		for (int i = 0; i < courses.size(); i++) {
+    			if (!feed.add(courses.get(i), feed.fileSize * (i + 1) / courses.size())) {
+    				return new ArrayList<Course>(courses.subList(0, i + 1));
+    			}
+    		}
+    		feed.finish();
+    		return courses;
+    	}
+    	
+    	courses = readMapped(fileName, stats, feed);
+    	if (feed.stopped) {
+    		return courses;
+    	}
+    	feed.finish();
+    	try {
+    		snapshot.write(snapshotFile, courses, stats);
+    	} catch (IOException e) {
+    		//The snapshot is only an optimization, the catalog is read again next time
+    	}
+    	return courses;
+    }
+    
+    /**
+     * Gives courses to a {@link CourseRecordListener} in batches of {@link #BATCH_SIZE},
+     * remembering whether it asked to stop.  Without a listener courses are not kept and the
+     * read is never stopped.
+     */
+    private static class BatchFeed {
+    	
+    	/** Told about every batch, or null */
+    	private final CourseRecordListener listener;
+    	
+    	/** Size of the file being read in bytes */
+    	private final long fileSize;
+    	
+    	/** Courses not yet given to the listener */
+    	private ArrayList<Course> batch = new ArrayList<Course>();
+    	
+    	/** Whether the listener asked to stop reading */
+    	private boolean stopped;
+    	
+    	/**
+    	 * Constructs a feed for the given listener
+    	 * @param listener told about every batch, or null
+    	 * @param fileSize size of the file being read in bytes
+    	 */
+    	BatchFeed(CourseRecordListener listener, long fileSize) {
+    		this.listener = listener;
+    		this.fileSize = fileSize;
+    	}
+    	
+    	/**
+    	 * Adds a course to the batch, giving the batch to the listener once it is full
+    	 * @param course read
+    	 * @param bytesRead number of bytes of the file read so far
+    	 * @return true to keep reading, false once the listener asked to stop
+    	 */
+    	boolean add(Course course, long bytesRead) {
+    		if (listener == null) {
+    			return true;
+    		}
+    		batch.add(course);
+    		if (batch.size() == BATCH_SIZE) {
+    			stopped = !listener.coursesRead(batch, bytesRead, fileSize);
+    			batch = new ArrayList<Course>();
+    		}
+    		return !stopped;
+    	}
+    	
+    	/**
+    	 * Gives the courses left to the listener once the whole file is read
+    	 */
+    	void finish() {
+    		if (listener != null) {
+    			listener.coursesRead(batch, fileSize, fileSize);
+    		}
+    	}
+    }
+    
+    /**
+     * Returns the position just after the first newline at or after the given position, so a
+     * chunk starting there begins on a new line.  In every charset the file can be read with, a
+     * newline byte is never part of another character.
+     * @param channel file being read
+     * @param pos position to start looking from
+     * @param size size of the file
+     * @return start of the next line, or the size of the file if there are no more lines
+     * @throws IOException if the file cannot be read
+     */
+    private static long lineBoundary(FileChannel channel, long pos, long size) throws IOException {
+    	ByteBuffer buffer = ByteBuffer.allocate(BOUNDARY_SCAN_SIZE);
+    	//Start one byte back so a newline just before pos makes pos a boundary itself
+    	pos = Math.max(0, pos - 1);
+    	while (pos < size) {
+    		buffer.clear();
+    		int read = channel.read(buffer, pos);
+    		if (read <= 0) {
+    			break;
+    		}
+    		for (int i = 0; i < read; i++) {
+    			if (buffer.get(i) == '\n') {
+    				return pos + i + 1;
+    			}
+    		}
+    		pos += read;
+    	}
+    	return size;
+    }
+    
+    /**
+     * Task that maps one chunk of a catalog file, splits it into lines the same way
+     * {@link Scanner#nextLine()} does, and reads a course from every line.  Courses are returned
+     * in file order without removing duplicates.
+     */
+    private static class ChunkTask extends RecursiveTask<ArrayList<Course>> {
+    	
+    	/** ID used for serialization. */
+		private static final long serialVersionUID = 1L;
+		
+		/** File the chunk is in */
+		private final transient FileChannel channel;
+		
+		/** Position of the first byte of the chunk */
+		private final long start;
+		
+		/** Position just after the last byte of the chunk */
+		private final long end;
+		
+		/** Charset used to decode the chunk */
+		private final transient Charset charset;
+		
+		/** Counts for the lines in the chunk, set once the task is done */
+		private final CourseRecordStats stats = new CourseRecordStats();
+		
+		/** Set when the courses of the chunk are no longer wanted */
+		private final AtomicBoolean stop;
+		
+		/**
+		 * Constructs a task for the given chunk of the file
+		 * @param channel file the chunk is in
+		 * @param start position of the first byte of the chunk
+		 * @param end position just after the last byte of the chunk
+		 * @param charset used to decode the chunk
+		 * @param stop set when the courses of the chunk are no longer wanted
+		 */
+		ChunkTask(FileChannel channel, long start, long end, Charset charset, AtomicBoolean stop) {
+			this.channel = channel;
+			this.start = start;
+			this.end = end;
+			this.charset = charset;
+			this.stop = stop;
+		}
+
+		/**
+		 * Parses the chunk, stopping early once the courses are no longer wanted
+		 * @return courses read from the chunk in file order
+		 */
+		@Override
+		protected ArrayList<Course> compute() {
+			ArrayList<Course> courses = new ArrayList<Course>();
+			if (stop.get()) {
+				return courses;
 			}
-			
-			if(sc.hasNext()) {
-				instructor = sc.next();
-			} else {
-				sc.close();
-				throw new IllegalArgumentException();
+			String text;
+			try {
+				MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, start, end - start);
+				text = charset.decode(buffer).toString();
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
 			}
 			
-			if(sc.hasNext()) {
-				meetingDay = sc.next();
-			} else {
-				sc.close();
-				throw new IllegalArgumentException();
+			for (String line : splitLines(text)) {
+				if (stop.get()) {
+					return courses;
+				}
+				stats.lineRead();
+				Course course = readCourse(line, stats);
+				if (course != null) {
+					courses.add(course);
+				}
 			}
-			
-			if("A".equals(meetingDay)) {
-    			if(sc.hasNext()) {
-    				sc.close();
-    				throw new IllegalArgumentException();
-    			} else {
-    				sc.close();
-    				Course course = new Course(name, title, section, creditHours, instructor, 
-        					meetingDay);
-    				return course;
-    			}    			
-    		} else {
-    			int startTime = 0;
-            	int endTime = 0;
-        		
-        		if(sc.hasNextInt()) {
-        			startTime = sc.nextInt();
-    			} else {
-    				sc.close();
-    				throw new IllegalArgumentException();
-    			}
-    			
-    			if(sc.hasNextInt()) {
-    				endTime = sc.nextInt();
-    			} else {
-    				sc.close();
-    				throw new IllegalArgumentException();
-    			}
-    			
-        		if(sc.hasNext()) {
-        			sc.close();
-    				throw new IllegalArgumentException();
-    			} else {
-    				sc.close();
-    				Course course = new Course(name, title, section, creditHours, instructor, 
-        					meetingDay, startTime, endTime);
-    				return course;
-    			}
-    		}    	
-		} catch (IllegalArgumentException e) {
-			throw new IllegalArgumentException();
+			return courses;
 		}
+    }
+    
+    /**
+     * Reads every line of a file, decoded and split the same way a {@link Scanner} reading the
+     * file would
+     * @param file to read
+     * @return lines of the file in order, without their line separators
+     * @throws IOException if the file cannot be found or read
+     */
+    static ArrayList<String> readLines(File file) throws IOException {
+    	byte[] bytes = Files.readAllBytes(file.toPath());
+    	return splitLines(new String(bytes, Charset.defaultCharset()));
+    }
+    
+    /**
+     * Splits text into lines the same way {@link Scanner#nextLine()} does
+     * @param text to split
+     * @return lines of the text in order, without their line separators
+     */
+    private static ArrayList<String> splitLines(String text) {
+    	ArrayList<String> lines = new ArrayList<String>();
+    	int length = text.length();
+    	int pos = 0;
+    	while (pos < length) {
+    		int lineEnd = pos;
+    		while (lineEnd < length && !isLineSeparator(text.charAt(lineEnd))) {
+    			lineEnd++;
+    		}
+    		lines.add(text.substring(pos, lineEnd));
+    		
+    		pos = lineEnd + 1;
+    		if (lineEnd + 1 < length && text.charAt(lineEnd) == '\r' && text.charAt(lineEnd + 1) == '\n') {
+    			pos++;
+    		}
+    	}
+    	return lines;
+    }
+    
+    /**
+     * Returns true if the character ends a line for {@link Scanner#nextLine()}
+     * @param c character to check
+     * @return true if c is a line separator
+     */
+    private static boolean isLineSeparator(char c) {
+    	return c == '\n' || c == '\r' || c == '\u2028' || c == '\u2029' || c == '\u0085';
+    }
+    
+    /**
+     * Private helper method to add data to set variables.  The line is split on commas
+     * by walking its characters once, the same way a {@link Scanner} using a comma delimiter
+     * would: a single comma at the start of the line is skipped, empty fields between two
+     * commas are kept, and a comma at the very end of the line does not start a new field.
+     * Every field is checked with the Course validation rules before the Course is constructed,
+     * so an invalid line is rejected without building an exception.
+     * @param line line read from the input file
+     * @param stats counts for the load, records the reason if the line is rejected
+     * @return Course object, or null if the line is invalid or missing required values
+     */
+    static Course readCourse(String line, CourseRecordStats stats) {
+    	int length = line.length();
+    	int pos = nextField(line, 0);
+    	
+    	if(pos >= length) {
+    		stats.rejected(RejectReason.MISSING_FIELD);
+    		return null;
+    	}
+    	int end = fieldEnd(line, pos);
+    	String name = line.substring(pos, end);
+    	pos = nextField(line, end);
+    	
+    	if(pos >= length) {
+    		stats.rejected(RejectReason.MISSING_FIELD);
+    		return null;
+    	}
+    	end = fieldEnd(line, pos);
+    	String title = line.substring(pos, end);
+    	pos = nextField(line, end);
+    	
+    	if(pos >= length) {
+    		stats.rejected(RejectReason.MISSING_FIELD);
+    		return null;
+    	}
+    	end = fieldEnd(line, pos);
+    	String section = line.substring(pos, end);
+    	pos = nextField(line, end);
+    	
+    	if(pos >= length) {
+    		stats.rejected(RejectReason.MISSING_FIELD);
+    		return null;
+    	}
+    	end = fieldEnd(line, pos);
+    	long creditHours = parseInt(line, pos, end);
+    	if(creditHours == NOT_AN_INT) {
+    		stats.rejected(RejectReason.NOT_A_NUMBER);
+    		return null;
+    	}
+    	pos = nextField(line, end);
+    	
+    	if(pos >= length) {
+    		stats.rejected(RejectReason.MISSING_FIELD);
+    		return null;
+    	}
+    	end = fieldEnd(line, pos);
+    	String instructor = line.substring(pos, end);
+    	pos = nextField(line, end);
+    	
+    	if(pos >= length) {
+    		stats.rejected(RejectReason.MISSING_FIELD);
+    		return null;
+    	}
+    	end = fieldEnd(line, pos);
+    	String meetingDay = line.substring(pos, end);
+    	pos = nextField(line, end);
+    	
+    	long startTime = 0;
+    	long endTime = 0;
+    	if(!"A".equals(meetingDay)) {
+    		if(pos >= length) {
+    			stats.rejected(RejectReason.MISSING_FIELD);
+    			return null;
+    		}
+    		end = fieldEnd(line, pos);
+    		startTime = parseInt(line, pos, end);
+    		if(startTime == NOT_AN_INT) {
+    			stats.rejected(RejectReason.NOT_A_NUMBER);
+    			return null;
+    		}
+    		pos = nextField(line, end);
+    		
+    		if(pos >= length) {
+    			stats.rejected(RejectReason.MISSING_FIELD);
+    			return null;
+    		}
+    		end = fieldEnd(line, pos);
+    		endTime = parseInt(line, pos, end);
+    		if(endTime == NOT_AN_INT) {
+    			stats.rejected(RejectReason.NOT_A_NUMBER);
+    			return null;
+    		}
+    		pos = nextField(line, end);
+    	}
+    	
+    	if(pos < length) {
+    		stats.rejected(RejectReason.EXTRA_FIELD);
+    		return null;
+    	}
+    	
+    	RejectReason reason = validate(name, title, section, (int) creditHours, instructor, meetingDay, 
+    			(int) startTime, (int) endTime);
+    	if(reason != null) {
+    		stats.rejected(reason);
+    		return null;
+    	}
+    	return new Course(name, title, section, (int) creditHours, instructor, meetingDay, 
+    			(int) startTime, (int) endTime);
+    }
+    
+    /**
+     * Checks the fields of a course in the same order the Course constructor sets them, so a
+     * Course built from fields that pass never throws
+     * @param name name of the course
+     * @param title title of the course
+     * @param section section of the course
+     * @param credits credit hours for the course
+     * @param instructorId instructor's unity ID
+     * @param meetingDays meeting days for the course
+     * @param startTime start time for the course
+     * @param endTime end time for the course
+     * @return the reason for the first field that is invalid, or null if every field is valid
+     */
+    private static RejectReason validate(String name, String title, String section, int credits, 
+    		String instructorId, String meetingDays, int startTime, int endTime) {
+    	if(!Course.isValidTitle(title)) {
+    		return RejectReason.INVALID_TITLE;
+    	}
+    	if(!Course.isValidMeetingDaysAndTime(meetingDays, startTime, endTime)) {
+    		return RejectReason.INVALID_MEETING_DAYS_AND_TIMES;
+    	}
+    	if(!Course.isValidName(name)) {
+    		return RejectReason.INVALID_NAME;
+    	}
+    	if(!Course.isValidSection(section)) {
+    		return RejectReason.INVALID_SECTION;
+    	}
+    	if(!Course.isValidCredits(credits)) {
+    		return RejectReason.INVALID_CREDITS;
+    	}
+    	if(!Course.isValidInstructorId(instructorId)) {
+    		return RejectReason.INVALID_INSTRUCTOR_ID;
+    	}
+    	return null;
+    }
+    
+    /**
+     * Returns the index where the next field starts, skipping the delimiter at the given
+     * index if there is one
+     * @param line line being read
+     * @param pos index just after the previous field, or 0 at the start of the line
+     * @return index of the first character of the next field
+     */
+    private static int nextField(String line, int pos) {
+    	if(pos < line.length() && line.charAt(pos) == DELIMITER) {
+    		return pos + 1;
+    	}
+    	return pos;
+    }
+    
+    /**
+     * Returns the index of the delimiter that ends the field starting at the given index,
+     * or the length of the line if the field is the last one
+     * @param line line being read
+     * @param pos index of the first character of the field
+     * @return index just after the last character of the field
+     */
+    private static int fieldEnd(String line, int pos) {
+    	int length = line.length();
+    	while(pos < length && line.charAt(pos) != DELIMITER) {
+    		pos++;
+    	}
+    	return pos;
+    }
+    
+    /**
+     * Parses the characters between start and end as a base 10 int, accepting the same
+     * values as {@link Scanner#hasNextInt()}: an optional sign followed by one or more
+     * digits that fit in an int.  Like Scanner, digits of every script in the
+     * Basic Multilingual Plane are accepted, not only ASCII ones.
+     * @param line line being read
+     * @param start index of the first character of the field
+     * @param end index just after the last character of the field
+     * @return the parsed value, or NOT_AN_INT if the field is not a valid int
+     */
+    private static long parseInt(String line, int start, int end) {
+    	boolean negative = false;
+    	if(start < end && (line.charAt(start) == '-' || line.charAt(start) == '+')) {
+    		negative = line.charAt(start) == '-';
+    		start++;
+    	}
+    	if(start == end) {
+    		return NOT_AN_INT;
+    	}
+    	
+    	long value = 0;
+    	for(int i = start; i < end; i++) {
+    		int digit = Character.digit(line.charAt(i), 10);
+    		if(digit < 0) {
+    			return NOT_AN_INT;
+    		}
+    		value = value * 10 + digit;
+    		if(value > (long) Integer.MAX_VALUE + 1) {
+    			return NOT_AN_INT;
+    		}
+    	}
     	
+    	if(negative) {
+    		value = -value;
+    	}
+    	if(value > Integer.MAX_VALUE || value < Integer.MIN_VALUE) {
+    		return NOT_AN_INT;
+    	}
+    	return value;
     }
 
 }
\ No newline at end of file
@@ -0,0 +1,29 @@
+package edu.ncsu.csc216.wolf_scheduler.io;
+
+import java.util.List;
+
+import edu.ncsu.csc216.wolf_scheduler.course.Course;
+
+/**
+ * Receives the courses read by
+ * {@link CourseRecordIO#readCourseRecords(String, CourseRecordStats, CourseRecordListener)},
+ * {@link CourseRecordIO#readCourseRecordsMapped(String, CourseRecordStats, CourseRecordListener)}
+ * or {@link CourseRecordIO#readCourseRecordsCached(String, CourseRecordStats, CourseRecordListener)}
+ * in batches while the file is still being read, so a caller can show them and report
+ * progress before the whole catalog is loaded.
+ *
+ * @author Riya Gunda
+ */
+public interface CourseRecordListener {
+
+	/**
+	 * Called with every batch of valid courses, in file order, on the thread reading the file.
+	 * Once the whole file is read it is called one last time with bytesRead equal to the file
+	 * size and whatever courses are left, which may be none.
+	 * @param courses read since the last batch, without duplicates of courses already read
+	 * @param bytesRead number of bytes of the file read so far
+	 * @param fileSize size of the file in bytes
+	 * @return true to keep reading, false to stop reading the file
+	 */
+	boolean coursesRead(List<Course> courses, long bytesRead, long fileSize);
+}
@@ -0,0 +1,241 @@
+package edu.ncsu.csc216.wolf_scheduler.io;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.zip.CRC32;
+
+import edu.ncsu.csc216.wolf_scheduler.course.Course;
+
+/**
+ * Reads and writes a binary snapshot of an already loaded course catalog.  The snapshot is
+ * stored next to the catalog file and records the catalog file's size, last modified time and
+ * CRC32 checksum, so it is only used while the catalog file is unchanged.  Strings are stored
+ * once in a table and courses refer to them by index, with the start and end time packed into
+ * a single int.
+ * 
+ * @author Riya Gunda
+ */
+class CourseRecordSnapshot {
+	
+	/** Extension added to the catalog file name for its snapshot */
+	static final String EXTENSION = ".snapshot";
+	
+	/** Value at the start of every snapshot file */
+	private static final int MAGIC = 0x57534353;
+	
+	/** Version of the snapshot format, changed whenever the layout or the parsing of lines changes */
+	private static final int VERSION = 3;
+	
+	/** Largest number of bytes mapped at once while computing a checksum */
+	private static final long CHECKSUM_REGION_SIZE = 1 << 30;
+	
+	/** Size of the catalog file */
+	private final long size;
+	
+	/** Last modified time of the catalog file */
+	private final long modified;
+	
+	/** Checksum of the catalog file */
+	private final long checksum;
+	
+	/**
+	 * Constructs the key for a snapshot of the given catalog file by reading its size, last
+	 * modified time and checksum
+	 * @param catalogFile catalog file the snapshot is for
+	 * @throws IOException if the catalog file cannot be read
+	 */
+	CourseRecordSnapshot(File catalogFile) throws IOException {
+		FileInputStream input = new FileInputStream(catalogFile);
+		try {
+			FileChannel channel = input.getChannel();
+			this.size = channel.size();
+			this.modified = catalogFile.lastModified();
+			
+			CRC32 crc = new CRC32();
+			for (long pos = 0; pos < size; pos += CHECKSUM_REGION_SIZE) {
+				MappedByteBuffer region = channel.map(FileChannel.MapMode.READ_ONLY, pos, 
+						Math.min(CHECKSUM_REGION_SIZE, size - pos));
+				crc.update(region);
+			}
+			this.checksum = crc.getValue();
+		} finally {
+			input.close();
+		}
+	}
+	
+	/**
+	 * Reads the courses from the snapshot file if it was written for the same catalog file
+	 * @param snapshotFile snapshot to read
+	 * @param stats counts for the load, set to the counts of the load the snapshot was written from
+	 * @return courses in the snapshot, or null if there is no usable snapshot
+	 */
+	ArrayList<Course> read(File snapshotFile, CourseRecordStats stats) {
+		if (!snapshotFile.isFile()) {
+			return null;
+		}
+		long length = snapshotFile.length();
+		try {
+			DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(snapshotFile)));
+			try {
+				if (in.readInt() != MAGIC || in.readInt() != VERSION || in.readLong() != size
+						|| in.readLong() != modified || in.readLong() != checksum) {
+					return null;
+				}
+				int linesRead = in.readInt();
+				int duplicatesDropped = in.readInt();
+				int[] rejections = new int[readCount(in, length, 4)];
+				for (int i = 0; i < rejections.length; i++) {
+					rejections[i] = in.readInt();
+				}
+				RejectReason[] reasons = RejectReason.values();
+				if (rejections.length != reasons.length) {
+					return null;
+				}
+				
+				String[] strings = new String[readCount(in, length, 2)];
+				for (int i = 0; i < strings.length; i++) {
+					strings[i] = in.readUTF();
+				}
+				
+				int count = readCount(in, length, 25);
+				ArrayList<Course> courses = new ArrayList<Course>(count);
+				for (int i = 0; i < count; i++) {
+					String name = strings[in.readInt()];
+					String title = strings[in.readInt()];
+					String section = strings[in.readInt()];
+					int credits = in.readByte();
+					String instructorId = strings[in.readInt()];
+					String meetingDays = strings[in.readInt()];
+					int times = in.readInt();
+					courses.add(new Course(name, title, section, credits, instructorId, meetingDays, 
+							times >>> 16, times & 0xFFFF));
+				}
+				
+				stats.linesRead(linesRead);
+				stats.duplicatesDropped(duplicatesDropped);
+				for (int i = 0; i < reasons.length; i++) {
+					stats.rejected(reasons[i], rejections[i]);
+				}
+				return courses;
+			} finally {
+				in.close();
+			}
+		} catch (IOException e) {
+			return null;
+		} catch (RuntimeException e) {
+			//A damaged snapshot can hold values the Course constructor or the string table reject
+			return null;
+		}
+	}
+	
+	/**
+	 * Reads the number of entries in a table of the snapshot.  A damaged snapshot could hold
+	 * any count, so a count that is negative or needs more bytes than the whole file is rejected
+	 * before anything is allocated for it.
+	 * @param in snapshot being read
+	 * @param length length of the snapshot file in bytes
+	 * @param entrySize fewest bytes an entry of the table takes
+	 * @return number of entries
+	 * @throws IOException if the count cannot be read or is not possible in the file
+	 */
+	private static int readCount(DataInputStream in, long length, int entrySize) throws IOException {
+		int count = in.readInt();
+		if (count < 0 || (long) count * entrySize > length) {
+			throw new IOException("Damaged snapshot.");
+		}
+		return count;
+	}
+	
+	/**
+	 * Writes the courses to the snapshot file.  The snapshot is written to a temporary file
+	 * first and renamed, so a reader never sees a partly written snapshot.
+	 * @param snapshotFile snapshot to write
+	 * @param courses courses loaded from the catalog file
+	 * @param stats counts for the load the courses came from
+	 * @throws IOException if the snapshot cannot be written
+	 */
+	void write(File snapshotFile, ArrayList<Course> courses, CourseRecordStats stats) throws IOException {
+		HashMap<String, Integer> index = new HashMap<String, Integer>();
+		ArrayList<String> strings = new ArrayList<String>();
+		int[] refs = new int[courses.size() * 5];
+		for (int i = 0; i < courses.size(); i++) {
+			Course c = courses.get(i);
+			refs[i * 5] = intern(c.getName(), index, strings);
+			refs[i * 5 + 1] = intern(c.getTitle(), index, strings);
+			refs[i * 5 + 2] = intern(c.getSection(), index, strings);
+			refs[i * 5 + 3] = intern(c.getInstructorId(), index, strings);
+			refs[i * 5 + 4] = intern(c.getMeetingDays(), index, strings);
+		}
+		
+		File temp = new File(snapshotFile.getPath() + ".tmp");
+		DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(temp)));
+		try {
+			out.writeInt(MAGIC);
+			out.writeInt(VERSION);
+			out.writeLong(size);
+			out.writeLong(modified);
+			out.writeLong(checksum);
+			out.writeInt(stats.getLinesRead());
+			out.writeInt(stats.getDuplicatesDropped());
+			RejectReason[] reasons = RejectReason.values();
+			out.writeInt(reasons.length);
+			for (RejectReason reason : reasons) {
+				out.writeInt(stats.getRejections(reason));
+			}
+			
+			out.writeInt(strings.size());
+			for (String s : strings) {
+				out.writeUTF(s);
+			}
+			
+			out.writeInt(courses.size());
+			for (int i = 0; i < courses.size(); i++) {
+				Course c = courses.get(i);
+				out.writeInt(refs[i * 5]);
+				out.writeInt(refs[i * 5 + 1]);
+				out.writeInt(refs[i * 5 + 2]);
+				out.writeByte(c.getCredits());
+				out.writeInt(refs[i * 5 + 3]);
+				out.writeInt(refs[i * 5 + 4]);
+				out.writeInt(c.getStartTime() << 16 | c.getEndTime());
+			}
+		} finally {
+			out.close();
+		}
+		
+		if (!temp.renameTo(snapshotFile)) {
+			snapshotFile.delete();
+			if (!temp.renameTo(snapshotFile)) {
+				temp.delete();
+				throw new IOException("Snapshot cannot be saved.");
+			}
+		}
+	}
+	
+	/**
+	 * Returns the index of the string in the string table, adding it if it is not there yet
+	 * @param s string to look up
+	 * @param index index of every string in the table
+	 * @param strings string table
+	 * @return index of s in the string table
+	 */
+	private static int intern(String s, HashMap<String, Integer> index, ArrayList<String> strings) {
+		Integer i = index.get(s);
+		if (i == null) {
+			i = strings.size();
+			index.put(s, i);
+			strings.add(s);
+		}
+		return i;
+	}
+}
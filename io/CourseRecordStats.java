@@ -0,0 +1,129 @@
+package edu.ncsu.csc216.wolf_scheduler.io;
+
+/**
+ * Counts what happened to the lines of a course catalog file while it was read by
+ * {@link CourseRecordIO}, so the quality of a catalog can be checked after loading it.
+ * 
+ * @author Riya Gunda
+ */
+public class CourseRecordStats {
+	
+	/** Every reject reason, in ordinal order */
+	private static final RejectReason[] REASONS = RejectReason.values();
+	
+	/** Number of lines read from the file */
+	private int linesRead;
+	
+	/** Number of lines that were not valid courses */
+	private int invalidLines;
+	
+	/** Number of valid courses dropped because the name and section were already loaded */
+	private int duplicatesDropped;
+	
+	/** Number of lines rejected for each reason, indexed by the reason's ordinal */
+	private int[] rejections = new int[REASONS.length];
+
+	/**
+	 * Returns the number of lines read from the file
+	 * @return the linesRead
+	 */
+	public int getLinesRead() {
+		return linesRead;
+	}
+
+	/**
+	 * Returns the number of lines that could not be read as a valid course
+	 * @return the invalidLines
+	 */
+	public int getInvalidLines() {
+		return invalidLines;
+	}
+
+	/**
+	 * Returns the number of lines rejected for the given reason
+	 * @param reason reason a line was rejected
+	 * @return number of lines rejected for the reason
+	 */
+	public int getRejections(RejectReason reason) {
+		return rejections[reason.ordinal()];
+	}
+	
+	/**
+	 * Returns the number of valid courses that were dropped because a course with the
+	 * same name and section appeared earlier in the file
+	 * @return the duplicatesDropped
+	 */
+	public int getDuplicatesDropped() {
+		return duplicatesDropped;
+	}
+	
+	/**
+	 * Returns the number of courses that were loaded
+	 * @return number of lines that were neither invalid nor duplicates
+	 */
+	public int getCoursesLoaded() {
+		return linesRead - invalidLines - duplicatesDropped;
+	}
+	
+	/**
+	 * Records a line that was read
+	 */
+	void lineRead() {
+		linesRead++;
+	}
+	
+	/**
+	 * Records several lines that were read
+	 * @param count number of lines read
+	 */
+	void linesRead(int count) {
+		linesRead += count;
+	}
+	
+	/**
+	 * Records a line that was not a valid course
+	 * @param reason the line was rejected for
+	 */
+	void rejected(RejectReason reason) {
+		invalidLines++;
+		rejections[reason.ordinal()]++;
+	}
+	
+	/**
+	 * Records several lines that were rejected for the same reason
+	 * @param reason the lines were rejected for
+	 * @param count number of lines rejected
+	 */
+	void rejected(RejectReason reason, int count) {
+		invalidLines += count;
+		rejections[reason.ordinal()] += count;
+	}
+	
+	/**
+	 * Adds the counts of another load, such as one chunk of a file, to these counts
+	 * @param other counts to add
+	 */
+	void add(CourseRecordStats other) {
+		linesRead += other.linesRead;
+		invalidLines += other.invalidLines;
+		duplicatesDropped += other.duplicatesDropped;
+		for(int i = 0; i < rejections.length; i++) {
+			rejections[i] += other.rejections[i];
+		}
+	}
+	
+	/**
+	 * Records a course that was dropped as a duplicate
+	 */
+	void duplicateDropped() {
+		duplicatesDropped++;
+	}
+	
+	/**
+	 * Records several courses that were dropped as duplicates
+	 * @param count number of duplicates dropped
+	 */
+	void duplicatesDropped(int count) {
+		duplicatesDropped += count;
+	}
+}
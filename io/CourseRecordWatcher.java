@@ -0,0 +1,266 @@
+package edu.ncsu.csc216.wolf_scheduler.io;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import edu.ncsu.csc216.wolf_scheduler.course.Course;
+
+/**
+ * Watches a course catalog file and reports the courses that were added, removed or modified
+ * every time the file changes.  The watcher keeps the result of parsing every line of the
+ * last load, looked up by the text of the line, so a reload only parses the lines that are
+ * new or were edited.  Every other line reuses the course it was parsed to before, so a one
+ * line correction to a large catalog parses a single line.
+ *
+ * Changes are found on a daemon thread that waits for the file system to report a change to
+ * the file, until the watcher is closed.  The file is read once no more changes have been
+ * reported for a short time.  A writer that pauses longer than that in the middle of the file
+ * should write a new file and rename it over the catalog instead.
+ *
+ * @author Riya Gunda
+ */
+public class CourseRecordWatcher implements Closeable {
+
+	/** Milliseconds the directory must be quiet after a change before the file is read */
+	private static final long SETTLE_TIME = 200;
+
+	/** Catalog file being watched */
+	private final File file;
+
+	/** Told about every change */
+	private final CourseRecordChangeListener listener;
+
+	/** Service reporting changes to the directory of the file */
+	private final WatchService watchService;
+
+	/** Result of parsing every distinct line of the last load, by the text of the line */
+	private HashMap<String, ParsedLine> lines = new HashMap<String, ParsedLine>();
+
+	/** Courses of the last load by name and section */
+	private HashMap<String, Course> courses = new HashMap<String, Course>();
+
+	/** Courses of the last load in file order */
+	private List<Course> courseList = new ArrayList<Course>();
+
+	/** Whether the listener was told about the first load */
+	private boolean loaded;
+
+	/** Whether the watcher was closed, after which the listener is not called again */
+	private boolean closed;
+
+	/**
+	 * Loads the file, tells the listener about every course in it, and starts watching it
+	 * @param fileName file to read Course records from
+	 * @param listener told about the courses of the first load and every change after it
+	 * @throws IOException if the file cannot be found or read, or cannot be watched
+	 * @throws IllegalArgumentException if the listener is null
+	 */
+	CourseRecordWatcher(String fileName, CourseRecordChangeListener listener) throws IOException {
+		if (listener == null) {
+			throw new IllegalArgumentException("Invalid listener.");
+		}
+		this.file = new File(fileName).getAbsoluteFile();
+		this.listener = listener;
+		reload();
+
+		watchService = FileSystems.getDefault().newWatchService();
+		try {
+			file.getParentFile().toPath().register(watchService,
+					StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+		} catch (IOException | RuntimeException e) {
+			watchService.close();
+			throw e;
+		}
+		Thread thread = new Thread(new Runnable() {
+			@Override
+			public void run() {
+				watch();
+			}
+		}, "Course record watcher");
+		thread.setDaemon(true);
+		thread.start();
+	}
+
+	/**
+	 * Returns the courses of the last load in file order
+	 * @return unmodifiable list of the courses
+	 */
+	public synchronized List<Course> getCourses() {
+		return courseList;
+	}
+
+	/**
+	 * Reads the file again now, parsing only the lines that were not in it at the last load.
+	 * The listener is told about the changes if any course changed, or if this is the first
+	 * load, and the watcher is not closed.  The watcher calls this itself whenever the file
+	 * changes.
+	 * @return changes since the last load
+	 * @throws IOException if the file cannot be found or read, in which case the last load
+	 * is kept
+	 */
+	public synchronized CourseRecordChanges reload() throws IOException {
+		CourseRecordStats stats = new CourseRecordStats();
+		HashMap<String, ParsedLine> newLines = new HashMap<String, ParsedLine>(lines.size() * 2);
+		HashMap<String, Course> newCourses = new HashMap<String, Course>(courses.size() * 2);
+		ArrayList<Course> newCourseList = new ArrayList<Course>(courseList.size());
+		ArrayList<Course> added = new ArrayList<Course>();
+		ArrayList<Course> modified = new ArrayList<Course>();
+		int linesParsed = 0;
+
+		for (String line : CourseRecordIO.readLines(file)) {
+			stats.lineRead();
+			ParsedLine parsed = newLines.get(line);
+			if (parsed == null) {
+				parsed = lines.get(line);
+				if (parsed == null) {
+					parsed = new ParsedLine(line);
+					linesParsed++;
+				}
+				newLines.put(line, parsed);
+			}
+			if (parsed.course == null) {
+				stats.rejected(parsed.reason);
+				continue;
+			}
+
+			Course course = parsed.course;
+			String key = parsed.key;
+			if (newCourses.containsKey(key)) {
+				stats.duplicateDropped(); //First occurrence wins, as in a full load
+				continue;
+			}
+			newCourses.put(key, course);
+			newCourseList.add(course);
+
+			Course old = courses.get(key);
+			if (old == null) {
+				added.add(course);
+			} else if (old != course && !old.equals(course)) {
+				modified.add(course);
+			}
+		}
+
+		ArrayList<Course> removed = new ArrayList<Course>();
+		for (Course old : courseList) {
+			if (!newCourses.containsKey(key(old))) {
+				removed.add(old);
+			}
+		}
+
+		lines = newLines;
+		courses = newCourses;
+		courseList = Collections.unmodifiableList(newCourseList);
+		CourseRecordChanges changes = new CourseRecordChanges(courseList, added, removed,
+				modified, stats, linesParsed);
+		if (!closed && (!loaded || !changes.isEmpty())) {
+			loaded = true;
+			listener.coursesChanged(changes);
+		}
+		return changes;
+	}
+
+	/**
+	 * Stops watching the file.  A reload in progress is finished first, so the listener is not
+	 * called again once this returns.
+	 * @throws IOException if the watch service cannot be closed
+	 */
+	@Override
+	public synchronized void close() throws IOException {
+		closed = true;
+		watchService.close();
+	}
+
+	/**
+	 * Waits for changes to the file and reloads it after each one, until the watcher is closed.
+	 * A reload waits until the directory has been quiet for a while, so a file that is still
+	 * being written is not read half way through.  An exception thrown by the listener is
+	 * passed to the thread's uncaught exception handler and the file is still watched; the
+	 * change it was told about counts as loaded.
+	 */
+	private void watch() {
+		try {
+			while (true) {
+				WatchKey key = watchService.take();
+				boolean changed = false;
+				while (key != null) {
+					for (WatchEvent<?> event : key.pollEvents()) {
+						if (event.kind() == StandardWatchEventKinds.OVERFLOW
+								|| file.getName().equals(event.context().toString())) {
+							changed = true;
+						}
+					}
+					if (!key.reset()) {
+						return; //The directory is gone, so the file cannot change again
+					}
+					key = watchService.poll(SETTLE_TIME, TimeUnit.MILLISECONDS);
+				}
+				if (changed) {
+					try {
+						reload();
+					} catch (IOException e) {
+						//The file is being replaced, it is read again on the next change
+					} catch (RuntimeException e) {
+						Thread thread = Thread.currentThread();
+						thread.getUncaughtExceptionHandler().uncaughtException(thread, e);
+					}
+				}
+			}
+		} catch (InterruptedException | ClosedWatchServiceException e) {
+			//The watcher was closed
+		}
+	}
+
+	/**
+	 * Returns the name and section a course is matched on between loads
+	 * @param course to match
+	 * @return key of the course
+	 */
+	private static String key(Course course) {
+		return course.getName() + "," + course.getSection();
+	}
+
+	/**
+	 * Result of parsing one line of the file, either a course or the reason the line was
+	 * rejected
+	 */
+	private static class ParsedLine {
+
+		/** Course read from the line, or null if the line was rejected */
+		private final Course course;
+
+		/** Name and section of the course, or null if the line was rejected */
+		private final String key;
+
+		/** Reason the line was rejected, or null if it is a course */
+		private final RejectReason reason;
+
+		/**
+		 * Parses a line of the file
+		 * @param line to parse
+		 */
+		ParsedLine(String line) {
+			CourseRecordStats lineStats = new CourseRecordStats();
+			course = CourseRecordIO.readCourse(line, lineStats);
+			key = course == null ? null : key(course);
+			RejectReason rejected = null;
+			for (RejectReason r : RejectReason.values()) {
+				if (lineStats.getRejections(r) > 0) {
+					rejected = r;
+				}
+			}
+			reason = rejected;
+		}
+	}
+}
@@ -0,0 +1,28 @@
+package edu.ncsu.csc216.wolf_scheduler.io;
+
+/**
+ * Reasons a line of a course catalog file is not read as a course.  A line is rejected for the
+ * first rule it breaks, checking the fields in the same order the Course constructor does.
+ * 
+ * @author Riya Gunda
+ */
+public enum RejectReason {
+	/** The line ends before every field of a course was read */
+	MISSING_FIELD,
+	/** The credits, start time or end time is not a whole number */
+	NOT_A_NUMBER,
+	/** The line has more fields after the last one a course uses */
+	EXTRA_FIELD,
+	/** The title is empty */
+	INVALID_TITLE,
+	/** The meeting days or times break the rules for a course */
+	INVALID_MEETING_DAYS_AND_TIMES,
+	/** The name breaks the rules for a course name */
+	INVALID_NAME,
+	/** The section is not three digits */
+	INVALID_SECTION,
+	/** The credits are not between 1 and 5 */
+	INVALID_CREDITS,
+	/** The instructor ID is empty */
+	INVALID_INSTRUCTOR_ID
+}
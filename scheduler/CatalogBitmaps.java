@@ -0,0 +1,291 @@
+package edu.ncsu.csc216.wolf_scheduler.scheduler;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import edu.ncsu.csc216.wolf_scheduler.course.Activity;
+import edu.ncsu.csc216.wolf_scheduler.course.Course;
+
+/**
+ * Per attribute bitmaps of the courses in a catalog, with one bit per catalog row, used to
+ * evaluate a {@link CatalogQuery}.  Attributes with few values, the meeting days, arranged
+ * and credits, are kept as bitmaps.  Names and instructor IDs have a value for almost every
+ * course, so a bitmap for each would mostly be empty words.  They are kept as sorted lists of
+ * rows instead, and only turned into a bitmap when a query asks for them.
+ *
+ * Every method returns a new bitmap the caller may change.  A catalog made by changing some
+ * courses of another gets a copy of the other's bitmaps with the rows of the kept courses
+ * moved, and only reads the changed courses.
+ *
+ * @author Riya Gunda
+ */
+class CatalogBitmaps {
+
+	/** Number of days in a week */
+	private static final int DAYS = Activity.WEEK_DAYS.length();
+
+	/** Number of rows in the catalog */
+	private int size;
+
+	/** Rows meeting on each day of the week */
+	private BitSet[] days = new BitSet[DAYS];
+
+	/** Rows of arranged courses */
+	private BitSet arranged = new BitSet();
+
+	/** Rows with each number of credits, indexed by credits */
+	private BitSet[] credits = new BitSet[Course.MAX_CREDITS + 1];
+
+	/** Rows of the courses with each name */
+	private HashMap<String, int[]> names;
+
+	/** Rows of the courses taught by each instructor */
+	private HashMap<String, int[]> instructors;
+
+	/**
+	 * Builds the bitmaps of the given catalog
+	 * @param catalog courses in catalog order
+	 */
+	CatalogBitmaps(List<Course> catalog) {
+		size = catalog.size();
+		for(int d = 0; d < DAYS; d++) {
+			days[d] = new BitSet(size);
+		}
+		for(int c = 0; c < credits.length; c++) {
+			credits[c] = new BitSet(size);
+		}
+
+		String[] nameKeys = new String[size];
+		String[] instructorKeys = new String[size];
+		for(int row = 0; row < size; row++) {
+			Course c = catalog.get(row);
+			int mask = c.getMeetingDaysMask();
+			if(mask == 0) {
+				arranged.set(row);
+			}
+			for(int d = 0; d < DAYS; d++) {
+				if((mask & (1 << d)) != 0) {
+					days[d].set(row);
+				}
+			}
+			credits[c.getCredits()].set(row);
+			nameKeys[row] = c.getName();
+			instructorKeys[row] = c.getInstructorId();
+		}
+		names = rowLists(nameKeys);
+		instructors = rowLists(instructorKeys);
+	}
+
+	/**
+	 * Builds the bitmaps of a catalog made from an older one by a change to its courses.  The
+	 * rows of the courses kept from the older catalog are moved in every bitmap and list, and
+	 * only the other courses are read.
+	 * @param old bitmaps of the older catalog
+	 * @param newRows new row of every row of the older catalog, or -1 if its course was not
+	 * kept.  Kept courses must be in the same order in both catalogs.
+	 * @param catalog courses in catalog order
+	 */
+	CatalogBitmaps(CatalogBitmaps old, int[] newRows, List<Course> catalog) {
+		size = catalog.size();
+		for(int d = 0; d < DAYS; d++) {
+			days[d] = moved(old.days[d], newRows, size);
+		}
+		for(int c = 0; c < credits.length; c++) {
+			credits[c] = moved(old.credits[c], newRows, size);
+		}
+		arranged = moved(old.arranged, newRows, size);
+		names = moved(old.names, newRows);
+		instructors = moved(old.instructors, newRows);
+
+		boolean[] kept = new boolean[size];
+		for(int row : newRows) {
+			if(row >= 0) {
+				kept[row] = true;
+			}
+		}
+		for(int row = 0; row < size; row++) {
+			if(kept[row]) {
+				continue;
+			}
+			Course c = catalog.get(row);
+			int mask = c.getMeetingDaysMask();
+			if(mask == 0) {
+				arranged.set(row);
+			}
+			for(int d = 0; d < DAYS; d++) {
+				if((mask & (1 << d)) != 0) {
+					days[d].set(row);
+				}
+			}
+			credits[c.getCredits()].set(row);
+			addRow(names, c.getName(), row);
+			addRow(instructors, c.getInstructorId(), row);
+		}
+	}
+
+	/**
+	 * Returns every row
+	 * @return bitmap with every row set
+	 */
+	BitSet all() {
+		BitSet bits = new BitSet(size);
+		bits.set(0, size);
+		return bits;
+	}
+
+	/**
+	 * Returns the rows meeting on a day
+	 * @param day index of the day in {@link Activity#WEEK_DAYS}
+	 * @return rows meeting on the day
+	 */
+	BitSet day(int day) {
+		return (BitSet) days[day].clone();
+	}
+
+	/**
+	 * Returns the rows of arranged courses
+	 * @return rows without meeting days
+	 */
+	BitSet arranged() {
+		return (BitSet) arranged.clone();
+	}
+
+	/**
+	 * Returns the rows with the given credits
+	 * @param value number of credits
+	 * @return rows with the credits, empty if no course can have them
+	 */
+	BitSet credits(int value) {
+		if(value < 0 || value >= credits.length) {
+			return new BitSet();
+		}
+		return (BitSet) credits[value].clone();
+	}
+
+	/**
+	 * Returns the rows of the courses with the given name
+	 * @param name of the course
+	 * @return rows of every section of the course
+	 */
+	BitSet name(String name) {
+		return toBitmap(names.get(name));
+	}
+
+	/**
+	 * Returns the rows of the courses taught by the given instructor
+	 * @param instructorId unity ID of the instructor
+	 * @return rows of the instructor's courses
+	 */
+	BitSet instructor(String instructorId) {
+		return toBitmap(instructors.get(instructorId));
+	}
+
+	/**
+	 * Turns a sorted list of rows into a bitmap
+	 * @param rows sorted rows, or null for none
+	 * @return bitmap with the rows set
+	 */
+	private BitSet toBitmap(int[] rows) {
+		BitSet bits = new BitSet(size);
+		if(rows != null) {
+			for(int row : rows) {
+				bits.set(row);
+			}
+		}
+		return bits;
+	}
+
+	/**
+	 * Returns a copy of a bitmap with every row moved to its new row, leaving out the rows that
+	 * were not kept
+	 * @param bits rows of the older catalog
+	 * @param newRows new row of every row of the older catalog, or -1 if it was not kept
+	 * @param size number of rows of the new catalog
+	 * @return the moved bitmap
+	 */
+	private static BitSet moved(BitSet bits, int[] newRows, int size) {
+		BitSet moved = new BitSet(size);
+		for(int row = bits.nextSetBit(0); row >= 0; row = bits.nextSetBit(row + 1)) {
+			if(newRows[row] >= 0) {
+				moved.set(newRows[row]);
+			}
+		}
+		return moved;
+	}
+
+	/**
+	 * Returns a copy of the lists of rows of each key with every row moved to its new row,
+	 * leaving out the rows that were not kept and the keys left without rows
+	 * @param lists rows of each key in the older catalog
+	 * @param newRows new row of every row of the older catalog, or -1 if it was not kept
+	 * @return the moved lists, still in increasing order
+	 */
+	private static HashMap<String, int[]> moved(HashMap<String, int[]> lists, int[] newRows) {
+		HashMap<String, int[]> moved = new HashMap<String, int[]>(lists.size() * 2);
+		for(Map.Entry<String, int[]> entry : lists.entrySet()) {
+			int[] rows = entry.getValue();
+			int[] movedRows = new int[rows.length];
+			int count = 0;
+			for(int row : rows) {
+				if(newRows[row] >= 0) {
+					movedRows[count++] = newRows[row];
+				}
+			}
+			if(count > 0) {
+				moved.put(entry.getKey(), count == rows.length ? movedRows : Arrays.copyOf(movedRows, count));
+			}
+		}
+		return moved;
+	}
+
+	/**
+	 * Adds a row to the sorted list of rows of a key
+	 * @param lists rows of each key
+	 * @param key of the row
+	 * @param row to add
+	 */
+	private static void addRow(HashMap<String, int[]> lists, String key, int row) {
+		int[] rows = lists.get(key);
+		if(rows == null) {
+			lists.put(key, new int[] {row});
+			return;
+		}
+		int at = -Arrays.binarySearch(rows, row) - 1;
+		int[] more = new int[rows.length + 1];
+		System.arraycopy(rows, 0, more, 0, at);
+		more[at] = row;
+		System.arraycopy(rows, at, more, at + 1, rows.length - at);
+		lists.put(key, more);
+	}
+
+	/**
+	 * Builds the sorted list of rows holding each key
+	 * @param keys key of every row
+	 * @return rows of each key in increasing order
+	 */
+	private static HashMap<String, int[]> rowLists(String[] keys) {
+		HashMap<String, int[]> counts = new HashMap<String, int[]>();
+		for(String key : keys) {
+			int[] count = counts.get(key);
+			if(count == null) {
+				count = new int[1];
+				counts.put(key, count);
+			}
+			count[0]++;
+		}
+
+		HashMap<String, int[]> lists = new HashMap<String, int[]>(counts.size() * 2);
+		for(String key : counts.keySet()) {
+			lists.put(key, new int[counts.get(key)[0]]);
+			counts.get(key)[0] = 0;
+		}
+		for(int row = 0; row < keys.length; row++) {
+			int[] count = counts.get(keys[row]);
+			lists.get(keys[row])[count[0]++] = row;
+		}
+		return lists;
+	}
+}
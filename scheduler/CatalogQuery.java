@@ -0,0 +1,257 @@
+package edu.ncsu.csc216.wolf_scheduler.scheduler;
+
+import java.util.BitSet;
+
+import edu.ncsu.csc216.wolf_scheduler.course.Activity;
+
+/**
+ * Condition on the courses in a catalog, built from conditions on single attributes combined
+ * with and, or and not, for example
+ * credits(3).and(instructorIn("jdyoung2", "sesmith5")).and(daysWithin("MWF")).andNot(arranged()).
+ * A query is run with {@link WolfScheduler#queryCatalog(CatalogQuery)}, which evaluates it on
+ * bitmaps of the catalog with one bit per course, so combining conditions costs a few bitwise
+ * operations per 64 courses instead of a pass over every course.
+ *
+ * Queries never change once built, so one query can be run any number of times.
+ *
+ * @author Riya Gunda
+ */
+public abstract class CatalogQuery {
+
+	/**
+	 * Constructs a query, only used by the factory methods
+	 */
+	private CatalogQuery() {
+		//Queries are only built by the factory methods
+	}
+
+	/**
+	 * Returns the rows of the catalog matching the query
+	 * @param bitmaps of the catalog
+	 * @return new bitmap of the matching rows
+	 */
+	abstract BitSet evaluate(CatalogBitmaps bitmaps);
+
+	/**
+	 * Returns a query matching every course
+	 * @return the query
+	 */
+	public static CatalogQuery all() {
+		return new CatalogQuery() {
+			@Override
+			BitSet evaluate(CatalogBitmaps bitmaps) {
+				return bitmaps.all();
+			}
+		};
+	}
+
+	/**
+	 * Returns a query matching the courses with the given credits
+	 * @param credits number of credits
+	 * @return the query
+	 */
+	public static CatalogQuery credits(final int credits) {
+		return new CatalogQuery() {
+			@Override
+			BitSet evaluate(CatalogBitmaps bitmaps) {
+				return bitmaps.credits(credits);
+			}
+		};
+	}
+
+	/**
+	 * Returns a query matching every section of the course with the given name
+	 * @param name of the course
+	 * @return the query
+	 * @throws IllegalArgumentException if the name is null
+	 */
+	public static CatalogQuery nameIs(final String name) {
+		if(name == null) {
+			throw new IllegalArgumentException("Invalid course name.");
+		}
+		return new CatalogQuery() {
+			@Override
+			BitSet evaluate(CatalogBitmaps bitmaps) {
+				return bitmaps.name(name);
+			}
+		};
+	}
+
+	/**
+	 * Returns a query matching the courses taught by any of the given instructors
+	 * @param instructorIds unity IDs of the instructors
+	 * @return the query
+	 * @throws IllegalArgumentException if an instructor ID is null
+	 */
+	public static CatalogQuery instructorIn(String... instructorIds) {
+		final String[] ids = instructorIds.clone();
+		for(String id : ids) {
+			if(id == null) {
+				throw new IllegalArgumentException("Invalid instructor id.");
+			}
+		}
+		return new CatalogQuery() {
+			@Override
+			BitSet evaluate(CatalogBitmaps bitmaps) {
+				BitSet bits = new BitSet();
+				for(String id : ids) {
+					bits.or(bitmaps.instructor(id));
+				}
+				return bits;
+			}
+		};
+	}
+
+	/**
+	 * Returns a query matching the courses that meet on every given day, and maybe others
+	 * @param meetingDays days of the week
+	 * @return the query
+	 * @throws IllegalArgumentException if a character is not a day of the week
+	 */
+	public static CatalogQuery meetsOn(String meetingDays) {
+		final int mask = toDayMask(meetingDays);
+		return new CatalogQuery() {
+			@Override
+			BitSet evaluate(CatalogBitmaps bitmaps) {
+				BitSet bits = bitmaps.all();
+				for(int d = 0; d < Activity.WEEK_DAYS.length(); d++) {
+					if((mask & (1 << d)) != 0) {
+						bits.and(bitmaps.day(d));
+					}
+				}
+				return bits;
+			}
+		};
+	}
+
+	/**
+	 * Returns a query matching the courses that meet on no day other than the given ones.
+	 * Arranged courses meet on no day at all, so they match too unless they are excluded
+	 * with {@link #arranged()}.
+	 * @param meetingDays days of the week the courses may meet on
+	 * @return the query
+	 * @throws IllegalArgumentException if a character is not a day of the week
+	 */
+	public static CatalogQuery daysWithin(String meetingDays) {
+		final int mask = toDayMask(meetingDays);
+		return new CatalogQuery() {
+			@Override
+			BitSet evaluate(CatalogBitmaps bitmaps) {
+				BitSet bits = bitmaps.all();
+				for(int d = 0; d < Activity.WEEK_DAYS.length(); d++) {
+					if((mask & (1 << d)) == 0) {
+						bits.andNot(bitmaps.day(d));
+					}
+				}
+				return bits;
+			}
+		};
+	}
+
+	/**
+	 * Returns a query matching the arranged courses
+	 * @return the query
+	 */
+	public static CatalogQuery arranged() {
+		return new CatalogQuery() {
+			@Override
+			BitSet evaluate(CatalogBitmaps bitmaps) {
+				return bitmaps.arranged();
+			}
+		};
+	}
+
+	/**
+	 * Returns a query matching the courses that match both this query and the other one
+	 * @param other query
+	 * @return the query
+	 * @throws IllegalArgumentException if the other query is null
+	 */
+	public CatalogQuery and(final CatalogQuery other) {
+		checkQuery(other);
+		final CatalogQuery first = this;
+		return new CatalogQuery() {
+			@Override
+			BitSet evaluate(CatalogBitmaps bitmaps) {
+				BitSet bits = first.evaluate(bitmaps);
+				if(!bits.isEmpty()) {
+					bits.and(other.evaluate(bitmaps));
+				}
+				return bits;
+			}
+		};
+	}
+
+	/**
+	 * Returns a query matching the courses that match this query, the other one, or both
+	 * @param other query
+	 * @return the query
+	 * @throws IllegalArgumentException if the other query is null
+	 */
+	public CatalogQuery or(final CatalogQuery other) {
+		checkQuery(other);
+		final CatalogQuery first = this;
+		return new CatalogQuery() {
+			@Override
+			BitSet evaluate(CatalogBitmaps bitmaps) {
+				BitSet bits = first.evaluate(bitmaps);
+				bits.or(other.evaluate(bitmaps));
+				return bits;
+			}
+		};
+	}
+
+	/**
+	 * Returns a query matching the courses that match this query but not the other one
+	 * @param other query
+	 * @return the query
+	 * @throws IllegalArgumentException if the other query is null
+	 */
+	public CatalogQuery andNot(final CatalogQuery other) {
+		checkQuery(other);
+		final CatalogQuery first = this;
+		return new CatalogQuery() {
+			@Override
+			BitSet evaluate(CatalogBitmaps bitmaps) {
+				BitSet bits = first.evaluate(bitmaps);
+				if(!bits.isEmpty()) {
+					bits.andNot(other.evaluate(bitmaps));
+				}
+				return bits;
+			}
+		};
+	}
+
+	/**
+	 * Returns a query matching the courses that do not match this query
+	 * @return the query
+	 */
+	public CatalogQuery not() {
+		return all().andNot(this);
+	}
+
+	/**
+	 * Checks that a query to combine with is not null
+	 * @param query to check
+	 * @throws IllegalArgumentException if the query is null
+	 */
+	private static void checkQuery(CatalogQuery query) {
+		if(query == null) {
+			throw new IllegalArgumentException("Invalid catalog query.");
+		}
+	}
+
+	/**
+	 * Converts meeting days to a meeting days mask
+	 * @param meetingDays days of the week
+	 * @return mask with the bit of every day set
+	 * @throws IllegalArgumentException if the days are null or a character is not a day of
+	 * the week
+	 */
+	private static int toDayMask(String meetingDays) {
+		if(meetingDays == null) {
+			throw new IllegalArgumentException("Invalid meeting days and times.");
+		}
+		return WolfScheduler.toDayMask(meetingDays);
+	}
+}
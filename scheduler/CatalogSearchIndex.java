@@ -0,0 +1,351 @@
+package edu.ncsu.csc216.wolf_scheduler.scheduler;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import edu.ncsu.csc216.wolf_scheduler.course.Course;
+
+/**
+ * Text index of the courses in a catalog, used to find courses while the user types.  Names
+ * and instructor IDs are kept in prefix tries, and titles are indexed by every three character
+ * piece of the title, so a title query only compares the titles that contain the rarest piece
+ * of the query.  Matching ignores case.
+ *
+ * One index is shared by a catalog and the larger catalogs built from it, and grows as courses
+ * are added to them, so a search gives the number of rows of the catalog being searched and
+ * only rows below it are returned.  Courses are added under a write lock and searches run
+ * under a read lock, so any number of searches can run at once on different threads.  A
+ * catalog made by changing some courses of another gets a copy of the other's index with the
+ * rows of the kept courses moved, and only indexes the changed courses itself.
+ *
+ * @author Riya Gunda
+ */
+class CatalogSearchIndex {
+
+	/** Length of the pieces titles are indexed by */
+	private static final int GRAM_LENGTH = 3;
+
+	/** Trie of the lowercased course names */
+	private TrieNode names = new TrieNode();
+
+	/** Trie of the lowercased instructor IDs */
+	private TrieNode instructors = new TrieNode();
+
+	/** Rows of the courses whose lowercased title contains each piece */
+	private HashMap<String, RowList> titleGrams = new HashMap<String, RowList>();
+
+	/** Lowercased title of every course, indexed by row */
+	private ArrayList<String> titles = new ArrayList<String>();
+
+	/** Held for writing while a course is added and for reading during a search */
+	private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+	/**
+	 * Constructs an empty index
+	 */
+	CatalogSearchIndex() {
+		//Courses are added one by one
+	}
+
+	/**
+	 * Constructs the index of a catalog made from an older one by a change to its courses.
+	 * The rows of the courses kept from the older catalog are moved in every list of rows
+	 * without reading the courses again, and only the courses that are not kept are indexed.
+	 * The kept courses must be in the same order in both catalogs, so the moved lists stay
+	 * sorted.
+	 * @param old index of the older catalog, which may also hold rows past its end
+	 * @param newRows new row of every row of the older catalog, or -1 if its course was not kept
+	 * @param courses every course of the new catalog in catalog order
+	 */
+	CatalogSearchIndex(CatalogSearchIndex old, int[] newRows, List<Course> courses) {
+		String[] moved = new String[courses.size()];
+		old.lock.readLock().lock();
+		try {
+			names = old.names.moved(newRows);
+			instructors = old.instructors.moved(newRows);
+			for(Map.Entry<String, RowList> entry : old.titleGrams.entrySet()) {
+				RowList rows = entry.getValue().moved(newRows);
+				if(rows.size > 0) {
+					titleGrams.put(entry.getKey(), rows);
+				}
+			}
+			for(int row = 0; row < newRows.length; row++) {
+				if(newRows[row] >= 0) {
+					moved[newRows[row]] = old.titles.get(row);
+				}
+			}
+		} finally {
+			old.lock.readLock().unlock();
+		}
+		titles.addAll(Arrays.asList(moved));
+		for(int row = 0; row < moved.length; row++) {
+			if(moved[row] == null) {
+				indexRow(row, courses.get(row));
+			}
+		}
+	}
+
+	/**
+	 * Adds a course to the index.  Courses must be added in catalog order, so the row of a
+	 * course is the number of courses added before it.
+	 * @param course to add
+	 */
+	void add(Course course) {
+		lock.writeLock().lock();
+		try {
+			addRow(course);
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	/**
+	 * Adds a course to the index while holding the write lock
+	 * @param course to add
+	 */
+	private void addRow(Course course) {
+		int row = titles.size();
+		titles.add(null);
+		indexRow(row, course);
+	}
+
+	/**
+	 * Indexes the course at a row whose title slot is already in the list of titles
+	 * @param row of the course
+	 * @param course to index
+	 */
+	private void indexRow(int row, Course course) {
+		names.add(lowerCase(course.getName()), row);
+		instructors.add(lowerCase(course.getInstructorId()), row);
+
+		String title = lowerCase(course.getTitle());
+		titles.set(row, title);
+		for(int i = 0; i + GRAM_LENGTH <= title.length(); i++) {
+			String gram = title.substring(i, i + GRAM_LENGTH);
+			RowList rows = titleGrams.get(gram);
+			if(rows == null) {
+				rows = new RowList();
+				titleGrams.put(gram, rows);
+			}
+			rows.add(row);
+		}
+	}
+
+	/**
+	 * Returns the rows of the courses whose name or instructor ID starts with the query or
+	 * whose title contains it, ignoring case and the spaces around the query
+	 * @param query text to look for
+	 * @param size number of rows of the catalog searched, no more than the courses added
+	 * @return matching rows below size in catalog order, every row below size if the query
+	 * is blank
+	 */
+	int[] search(String query, int size) {
+		String q = lowerCase(query.trim());
+		if(q.length() == 0) {
+			int[] all = new int[size];
+			for(int i = 0; i < size; i++) {
+				all[i] = i;
+			}
+			return all;
+		}
+
+		BitSet found = new BitSet(size);
+		lock.readLock().lock();
+		try {
+			names.collect(q, found);
+			instructors.collect(q, found);
+			findTitles(q, found, size);
+		} finally {
+			lock.readLock().unlock();
+		}
+		if(found.length() > size) {
+			found.clear(size, found.length());
+		}
+
+		int[] rows = new int[found.cardinality()];
+		int count = 0;
+		for(int row = found.nextSetBit(0); row >= 0; row = found.nextSetBit(row + 1)) {
+			rows[count++] = row;
+		}
+		return rows;
+	}
+
+	/**
+	 * Marks the rows of the courses whose title contains the query.  Titles shorter than a
+	 * piece are compared one by one.
+	 * @param q lowercased query
+	 * @param found rows matched so far
+	 * @param size number of rows searched
+	 */
+	private void findTitles(String q, BitSet found, int size) {
+		if(q.length() < GRAM_LENGTH) {
+			for(int row = 0; row < size; row++) {
+				if(titles.get(row).contains(q)) {
+					found.set(row);
+				}
+			}
+			return;
+		}
+
+		RowList rarest = null;
+		for(int i = 0; i + GRAM_LENGTH <= q.length(); i++) {
+			RowList rows = titleGrams.get(q.substring(i, i + GRAM_LENGTH));
+			if(rows == null) {
+				return;
+			}
+			if(rarest == null || rows.size < rarest.size) {
+				rarest = rows;
+			}
+		}
+		for(int i = 0; i < rarest.size && rarest.rows[i] < size; i++) {
+			int row = rarest.rows[i];
+			if(titles.get(row).contains(q)) {
+				found.set(row);
+			}
+		}
+	}
+
+	/**
+	 * Lowercases text the same way for the index and the queries
+	 * @param text to lowercase
+	 * @return lowercased text
+	 */
+	private static String lowerCase(String text) {
+		return text.toLowerCase(Locale.ROOT);
+	}
+
+	/**
+	 * Growing list of rows in increasing order, without repeats
+	 */
+	private static class RowList {
+
+		/** Rows in the list, with room for more */
+		private int[] rows = new int[2];
+
+		/** Number of rows in the list */
+		private int size;
+
+		/**
+		 * Adds a row in order unless it is already in the list.  Rows are usually added in
+		 * increasing order, which only appends them.
+		 * @param row to add
+		 */
+		void add(int row) {
+			int at = size;
+			if(size > 0 && rows[size - 1] >= row) {
+				at = Arrays.binarySearch(rows, 0, size, row);
+				if(at >= 0) {
+					return;
+				}
+				at = -at - 1;
+			}
+			if(size == rows.length) {
+				rows = Arrays.copyOf(rows, size * 2);
+			}
+			System.arraycopy(rows, at, rows, at + 1, size - at);
+			rows[at] = row;
+			size++;
+		}
+
+		/**
+		 * Returns a copy of the list with every row moved to its new row, leaving out the rows
+		 * that were not kept
+		 * @param newRows new row of every old row, or -1 if it was not kept.  Rows past its end
+		 * are not kept.
+		 * @return the moved list
+		 */
+		RowList moved(int[] newRows) {
+			RowList moved = new RowList();
+			moved.rows = new int[Math.max(2, size)];
+			for(int i = 0; i < size && rows[i] < newRows.length; i++) {
+				int row = newRows[rows[i]];
+				if(row >= 0) {
+					moved.rows[moved.size++] = row;
+				}
+			}
+			return moved;
+		}
+	}
+
+	/**
+	 * Node of a prefix trie, holding the rows of the keys that end at the node
+	 */
+	private static class TrieNode {
+
+		/** Child nodes by the next character of the key */
+		private HashMap<Character, TrieNode> children = new HashMap<Character, TrieNode>();
+
+		/** Rows of the keys ending at this node */
+		private RowList rows = new RowList();
+
+		/**
+		 * Adds a key below this node
+		 * @param key to add
+		 * @param row of the course with the key
+		 */
+		void add(String key, int row) {
+			TrieNode node = this;
+			for(int i = 0; i < key.length(); i++) {
+				TrieNode child = node.children.get(key.charAt(i));
+				if(child == null) {
+					child = new TrieNode();
+					node.children.put(key.charAt(i), child);
+				}
+				node = child;
+			}
+			node.rows.add(row);
+		}
+
+		/**
+		 * Returns a copy of the trie below this node with every row moved to its new row,
+		 * leaving out the rows that were not kept and the nodes left without any rows
+		 * @param newRows new row of every old row, or -1 if it was not kept
+		 * @return the moved node
+		 */
+		TrieNode moved(int[] newRows) {
+			TrieNode moved = new TrieNode();
+			moved.rows = rows.moved(newRows);
+			for(Map.Entry<Character, TrieNode> entry : children.entrySet()) {
+				TrieNode child = entry.getValue().moved(newRows);
+				if(child.rows.size > 0 || !child.children.isEmpty()) {
+					moved.children.put(entry.getKey(), child);
+				}
+			}
+			return moved;
+		}
+
+		/**
+		 * Marks the rows of every key below this node that starts with the prefix
+		 * @param prefix start of the keys
+		 * @param found rows matched so far
+		 */
+		void collect(String prefix, BitSet found) {
+			TrieNode node = this;
+			for(int i = 0; i < prefix.length() && node != null; i++) {
+				node = node.children.get(prefix.charAt(i));
+			}
+			if(node != null) {
+				node.collectAll(found);
+			}
+		}
+
+		/**
+		 * Marks the rows of this node and every node below it
+		 * @param found rows matched so far
+		 */
+		private void collectAll(BitSet found) {
+			for(int i = 0; i < rows.size; i++) {
+				found.set(rows.rows[i]);
+			}
+			for(TrieNode child : children.values()) {
+				child.collectAll(found);
+			}
+		}
+	}
+}
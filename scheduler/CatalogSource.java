@@ -0,0 +1,165 @@
+package edu.ncsu.csc216.wolf_scheduler.scheduler;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import edu.ncsu.csc216.wolf_scheduler.course.Course;
+import edu.ncsu.csc216.wolf_scheduler.io.CourseRecordChangeListener;
+import edu.ncsu.csc216.wolf_scheduler.io.CourseRecordChanges;
+import edu.ncsu.csc216.wolf_scheduler.io.CourseRecordIO;
+import edu.ncsu.csc216.wolf_scheduler.io.CourseRecordStats;
+import edu.ncsu.csc216.wolf_scheduler.io.CourseRecordWatcher;
+
+/**
+ * Current version of a catalog that can be replaced while sessions are using it, such as when
+ * the registrar publishes a corrected catalog during the day.  Every {@link WolfScheduler}
+ * session made from a source reads its catalog from the source, so they all switch to a new
+ * catalog as soon as it is published.
+ *
+ * A catalog never changes once built, so the source only holds a reference to the current
+ * one.  Readers take the reference and keep using that catalog until they are done, without
+ * ever waiting.  A new catalog is built off to the side, for example on a background thread,
+ * and swapped in with a single reference update.  Readers still using the old catalog finish
+ * with it, and it is dropped when the last of them is done.
+ *
+ * @author Riya Gunda
+ */
+public final class CatalogSource {
+
+	/** Catalog readers currently get */
+	private final AtomicReference<CourseCatalog> current;
+
+	/**
+	 * Constructs a source publishing the given catalog
+	 * @param catalog first catalog
+	 * @throws IllegalArgumentException if the catalog is null
+	 */
+	public CatalogSource(CourseCatalog catalog) {
+		checkCatalog(catalog);
+		current = new AtomicReference<CourseCatalog>(catalog);
+	}
+
+	/**
+	 * Returns the current catalog.  The catalog does not change, so a caller making several
+	 * reads should get it once and read it, to see the same version throughout.
+	 * @return the current catalog
+	 */
+	public CourseCatalog getCatalog() {
+		return current.get();
+	}
+
+	/**
+	 * Returns the version of the current catalog
+	 * @return the version
+	 */
+	public long getVersion() {
+		return current.get().getVersion();
+	}
+
+	/**
+	 * Replaces the current catalog.  The indexes of the new catalog are built first, on the
+	 * calling thread, so readers switching to it never wait for them.
+	 * @param catalog new catalog
+	 * @return the catalog it replaced
+	 * @throws IllegalArgumentException if the catalog is null
+	 */
+	public CourseCatalog publish(CourseCatalog catalog) {
+		checkCatalog(catalog);
+		catalog.buildIndexes();
+		return current.getAndSet(catalog);
+	}
+
+	/**
+	 * Loads a catalog from a course records file and replaces the current catalog with it.
+	 * The current catalog stays in use while the file is read and indexed, so this can be
+	 * called from a background thread without holding up any reader.
+	 * @param fileName file to read Course records from
+	 * @return the new catalog
+	 * @throws IOException if the file cannot be found or read, in which case the current
+	 * catalog is kept
+	 */
+	public CourseCatalog reload(String fileName) throws IOException {
+		CourseCatalog catalog = CourseCatalog.load(fileName);
+		publish(catalog);
+		return catalog;
+	}
+
+	/**
+	 * Loads a course records file, publishes its catalog, and publishes a new catalog every
+	 * time the file changes.  Only the lines that changed are parsed again, and a change that
+	 * does not add, remove or modify a course publishes nothing.  Each new catalog is built
+	 * from the one published for the change before with
+	 * {@link CourseCatalog#withChanges(CourseRecordChanges)}, so only the changed courses are
+	 * indexed.
+	 * @param fileName file to read Course records from
+	 * @return the watcher, which keeps publishing changes until it is closed
+	 * @throws IOException if the file cannot be found or read, or cannot be watched
+	 */
+	public CourseRecordWatcher watch(String fileName) throws IOException {
+		return CourseRecordIO.watchCourseRecords(fileName, new CourseRecordChangeListener() {
+
+			/** Catalog published for the last change, which the next change is applied to */
+			private CourseCatalog last;
+
+			@Override
+			public void coursesChanged(CourseRecordChanges changes) {
+				if(last == null) {
+					last = new CourseCatalog(changes.getCourses(), changes.getStats());
+				} else {
+					last = last.withChanges(changes);
+				}
+				publish(last);
+			}
+		});
+	}
+
+	/**
+	 * Replaces the current catalog with one that has the given courses added to its end.  If
+	 * another catalog is published while the larger one is built, the courses are added to
+	 * that one instead, so neither change is lost.  The larger catalog shares its courses and
+	 * search index with the current one and only indexes the added courses, since courses are
+	 * usually added in many small batches.  Its time index and bitmaps are built when first
+	 * used.
+	 * @param courses to add, in catalog order
+	 * @return the new catalog
+	 * @throws IllegalArgumentException if the list of courses is null
+	 */
+	public CourseCatalog addCourses(List<Course> courses) {
+		while(true) {
+			CourseCatalog catalog = current.get();
+			CourseCatalog larger = catalog.withCourses(courses);
+			if(current.compareAndSet(catalog, larger)) {
+				return larger;
+			}
+		}
+	}
+
+	/**
+	 * Replaces the current catalog with one of the same courses and the given load counts,
+	 * such as once a catalog added in batches is fully loaded.  If another catalog is
+	 * published meanwhile, the counts are set on that one instead.
+	 * @param stats counts for the load of the courses
+	 * @return the new catalog
+	 */
+	public CourseCatalog setStats(CourseRecordStats stats) {
+		while(true) {
+			CourseCatalog catalog = current.get();
+			CourseCatalog counted = catalog.withStats(stats);
+			if(current.compareAndSet(catalog, counted)) {
+				return counted;
+			}
+		}
+	}
+
+	/**
+	 * Checks that a catalog to publish is not null
+	 * @param catalog to check
+	 * @throws IllegalArgumentException if the catalog is null
+	 */
+	private static void checkCatalog(CourseCatalog catalog) {
+		if(catalog == null) {
+			throw new IllegalArgumentException("Invalid catalog.");
+		}
+	}
+}
@@ -0,0 +1,237 @@
+package edu.ncsu.csc216.wolf_scheduler.scheduler;
+
+import java.util.Arrays;
+
+import edu.ncsu.csc216.wolf_scheduler.course.Activity;
+
+/**
+ * Index of the meeting times of the courses in a catalog, used for range queries on start and
+ * end times.  For every day of the week, and for all courses that meet on any day, the index
+ * keeps the catalog rows sorted by start minute and sorted by end minute, next to the sorted
+ * minutes themselves.  A query finds its range in the list of the requested day with the
+ * fewest courses in range using binary search, and only checks the meeting days of the rows
+ * in that range.  Arranged courses have no meeting days, so they are never in the index.  A
+ * catalog made by changing some courses of another moves the rows of the other's lists and
+ * only sorts the changed courses.
+ *
+ * @author Riya Gunda
+ */
+class CatalogTimeIndex {
+
+	/** Number of days in a week */
+	private static final int DAYS = Activity.WEEK_DAYS.length();
+
+	/** Position of the lists for the courses meeting on any day */
+	private static final int ANY_DAY = DAYS;
+
+	/** Meeting days mask of every row */
+	private int[] masks;
+
+	/** For each day, the rows meeting that day sorted by start minute */
+	private int[][] startRows = new int[DAYS + 1][];
+
+	/** For each day, the start minutes of the rows in startRows */
+	private int[][] startMinutes = new int[DAYS + 1][];
+
+	/** For each day, the rows meeting that day sorted by end minute */
+	private int[][] endRows = new int[DAYS + 1][];
+
+	/** For each day, the end minutes of the rows in endRows */
+	private int[][] endMinutes = new int[DAYS + 1][];
+
+	/**
+	 * Builds the index over the first size rows of the given arrays
+	 * @param days meeting days mask of every row
+	 * @param starts start minute of every row
+	 * @param ends end minute of every row
+	 * @param size number of rows
+	 */
+	CatalogTimeIndex(int[] days, int[] starts, int[] ends, int size) {
+		masks = Arrays.copyOf(days, size);
+		for(int d = 0; d <= DAYS; d++) {
+			int mask = d == ANY_DAY ? -1 : 1 << d;
+			long[] byStart = new long[size];
+			long[] byEnd = new long[size];
+			int count = 0;
+			for(int row = 0; row < size; row++) {
+				if((masks[row] & mask) != 0) {
+					//Sort on the minute and break ties by row, in a single primitive sort
+					byStart[count] = (long) starts[row] << 32 | row;
+					byEnd[count] = (long) ends[row] << 32 | row;
+					count++;
+				}
+			}
+			Arrays.sort(byStart, 0, count);
+			Arrays.sort(byEnd, 0, count);
+
+			startRows[d] = new int[count];
+			startMinutes[d] = new int[count];
+			endRows[d] = new int[count];
+			endMinutes[d] = new int[count];
+			for(int i = 0; i < count; i++) {
+				startRows[d][i] = (int) byStart[i];
+				startMinutes[d][i] = (int) (byStart[i] >>> 32);
+				endRows[d][i] = (int) byEnd[i];
+				endMinutes[d][i] = (int) (byEnd[i] >>> 32);
+			}
+		}
+	}
+
+	/**
+	 * Builds the index of a catalog made from an older one by a change to its courses.  The
+	 * lists of the older index stay sorted with the rows of the kept courses moved, and only
+	 * the rows that were not kept are sorted and merged into them.
+	 * @param old index of the older catalog
+	 * @param newRows new row of every row of the older catalog, or -1 if its course was not kept
+	 * @param days meeting days mask of every row
+	 * @param starts start minute of every row
+	 * @param ends end minute of every row
+	 * @param size number of rows
+	 */
+	CatalogTimeIndex(CatalogTimeIndex old, int[] newRows, int[] days, int[] starts, int[] ends, int size) {
+		masks = Arrays.copyOf(days, size);
+		boolean[] kept = new boolean[size];
+		for(int row : newRows) {
+			if(row >= 0) {
+				kept[row] = true;
+			}
+		}
+		for(int d = 0; d <= DAYS; d++) {
+			int mask = d == ANY_DAY ? -1 : 1 << d;
+			long[] byStart = new long[size];
+			long[] byEnd = new long[size];
+			int count = 0;
+			for(int row = 0; row < size; row++) {
+				if(!kept[row] && (masks[row] & mask) != 0) {
+					byStart[count] = (long) starts[row] << 32 | row;
+					byEnd[count] = (long) ends[row] << 32 | row;
+					count++;
+				}
+			}
+			Arrays.sort(byStart, 0, count);
+			Arrays.sort(byEnd, 0, count);
+			merge(old.startRows[d], old.startMinutes[d], newRows, byStart, count, startRows, startMinutes, d);
+			merge(old.endRows[d], old.endMinutes[d], newRows, byEnd, count, endRows, endMinutes, d);
+		}
+	}
+
+	/**
+	 * Merges the moved list of an older index for a day with the sorted rows that were not
+	 * kept from it
+	 * @param oldRows rows of the older list
+	 * @param oldMinutes sorted minutes of the older list
+	 * @param newRows new row of every row of the older catalog, or -1 if its course was not kept
+	 * @param added minute and row of every row to merge in, sorted
+	 * @param count number of rows to merge in
+	 * @param rows lists of rows to set the merged list in
+	 * @param minutes lists of minutes to set the merged minutes in
+	 * @param day position of the list to set
+	 */
+	private static void merge(int[] oldRows, int[] oldMinutes, int[] newRows, long[] added, int count,
+			int[][] rows, int[][] minutes, int day) {
+		int kept = 0;
+		for(int row : oldRows) {
+			if(newRows[row] >= 0) {
+				kept++;
+			}
+		}
+		int[] mergedRows = new int[kept + count];
+		int[] mergedMinutes = new int[kept + count];
+		int i = 0;
+		int a = 0;
+		for(int out = 0; out < mergedRows.length; out++) {
+			while(i < oldRows.length && newRows[oldRows[i]] < 0) {
+				i++;
+			}
+			if(a == count || (i < oldRows.length && oldMinutes[i] <= (int) (added[a] >>> 32))) {
+				mergedRows[out] = newRows[oldRows[i]];
+				mergedMinutes[out] = oldMinutes[i++];
+			} else {
+				mergedRows[out] = (int) added[a];
+				mergedMinutes[out] = (int) (added[a++] >>> 32);
+			}
+		}
+		rows[day] = mergedRows;
+		minutes[day] = mergedMinutes;
+	}
+
+	/**
+	 * Returns the rows meeting on every given day that start between the given minutes
+	 * @param dayMask days the rows must all meet on, or 0 for rows meeting on any day
+	 * @param from earliest start minute
+	 * @param to latest start minute
+	 * @return matching rows in catalog order
+	 */
+	int[] startingBetween(int dayMask, int from, int to) {
+		return collect(startRows, startMinutes, dayMask, from, to + 1);
+	}
+
+	/**
+	 * Returns the rows meeting on every given day that end before the given minute
+	 * @param dayMask days the rows must all meet on, or 0 for rows meeting on any day
+	 * @param before minute the rows must end before
+	 * @return matching rows in catalog order
+	 */
+	int[] endingBefore(int dayMask, int before) {
+		return collect(endRows, endMinutes, dayMask, 0, before);
+	}
+
+	/**
+	 * Returns the rows meeting on every given day whose minute in the lists is at least from
+	 * and less than to
+	 * @param rows lists of rows for every day
+	 * @param minutes sorted minutes of the rows in each list
+	 * @param dayMask days the rows must all meet on, or 0 for any day
+	 * @param from smallest minute to match
+	 * @param to minute just after the largest one to match
+	 * @return matching rows in catalog order
+	 */
+	private int[] collect(int[][] rows, int[][] minutes, int dayMask, int from, int to) {
+		int list = ANY_DAY;
+		int lo = lowerBound(minutes[ANY_DAY], from);
+		int hi = lowerBound(minutes[ANY_DAY], to);
+		for(int d = 0; d < DAYS; d++) {
+			if((dayMask & (1 << d)) != 0) {
+				int dayLo = lowerBound(minutes[d], from);
+				int dayHi = lowerBound(minutes[d], to);
+				if(list == ANY_DAY || dayHi - dayLo < hi - lo) {
+					list = d;
+					lo = dayLo;
+					hi = dayHi;
+				}
+			}
+		}
+
+		int[] found = new int[Math.max(0, hi - lo)];
+		int count = 0;
+		for(int i = lo; i < hi; i++) {
+			int row = rows[list][i];
+			if((masks[row] & dayMask) == dayMask) {
+				found[count++] = row;
+			}
+		}
+		found = Arrays.copyOf(found, count);
+		Arrays.sort(found);
+		return found;
+	}
+
+	/**
+	 * Returns the index of the first value that is at least the key
+	 * @param sorted values in increasing order
+	 * @param key value to look for
+	 * @return index of the first value not less than the key, or the length if there is none
+	 */
+	private static int lowerBound(int[] sorted, int key) {
+		int lo = 0;
+		int hi = sorted.length;
+		while(lo < hi) {
+			int mid = (lo + hi) >>> 1;
+			if(sorted[mid] < key) {
+				lo = mid + 1;
+			} else {
+				hi = mid;
+			}
+		}
+		return lo;
+	}
+}
@@ -0,0 +1,602 @@
+package edu.ncsu.csc216.wolf_scheduler.scheduler;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import edu.ncsu.csc216.wolf_scheduler.course.Course;
+import edu.ncsu.csc216.wolf_scheduler.io.CourseRecordChanges;
+import edu.ncsu.csc216.wolf_scheduler.io.CourseRecordIO;
+import edu.ncsu.csc216.wolf_scheduler.io.CourseRecordStats;
+
+/**
+ * Catalog of courses that never changes once built, so one catalog can be loaded once and
+ * shared by every {@link WolfScheduler} session in the JVM, from any number of threads.  A
+ * session only holds its own schedule and title, and reads the courses and indexes through
+ * the catalog it was given.
+ *
+ * A catalog that is still being loaded is replaced by a larger one with every batch of
+ * courses, so a catalog built from another with {@link #withCourses(List)} shares its courses,
+ * name and section index, name index, meeting times and search index.  They are kept in an
+ * append-only store, and each catalog only reads the rows that were in the store when it was
+ * built, so adding a batch costs the size of the batch rather than of the whole catalog.  Rows
+ * once written never change, and a catalog that is not the latest one built on its store
+ * copies the rows it reads into a store of its own before adding courses.  A catalog built
+ * from another with {@link #withChanges(CourseRecordChanges)}, when a watched file changes,
+ * also keeps the other's indexes, moving the rows of the courses it keeps rather than indexing
+ * every course again.  The time index and bitmaps are only built the first time they are
+ * needed.  Each of them is published through a volatile field, so a thread either sees a
+ * complete index or builds its own copy.
+ *
+ * Every catalog gets a version when it is built, higher than the version of any catalog
+ * built before it, so sessions can report which catalog they are reading.
+ *
+ * The courses themselves are shared between sessions, so every course is frozen when it is
+ * added to a catalog and its setters throw from then on.
+ *
+ * @author Riya Gunda
+ */
+public final class CourseCatalog {
+
+	/** Version of the last catalog built */
+	private static final AtomicLong LAST_VERSION = new AtomicLong();
+
+	/** Version of the catalog */
+	private final long version = LAST_VERSION.incrementAndGet();
+
+	/** Courses and indexes shared with the catalogs built from this one */
+	private final Store store;
+
+	/** Number of rows of the store in the catalog */
+	private final int size;
+
+	/** Courses in catalog order */
+	private final List<Course> courses;
+
+	/** Meeting days mask of every course, in catalog order */
+	private final int[] catalogDays;
+
+	/** Start minute of every course, in catalog order */
+	private final int[] catalogStarts;
+
+	/** End minute of every course, in catalog order */
+	private final int[] catalogEnds;
+
+	/** Counts of the lines read, invalid and dropped as duplicates when the catalog was loaded */
+	private final CourseRecordStats stats;
+
+	/** Index of the meeting times, or null until the first time query */
+	private volatile CatalogTimeIndex timeIndex;
+
+	/** Bitmaps of the course attributes, or null until the first catalog query */
+	private volatile CatalogBitmaps bitmaps;
+
+	/**
+	 * Constructs a catalog of the given courses.  A course with the same name and section as
+	 * an earlier one is skipped, so the first one wins.
+	 * @param courses in catalog order
+	 * @param stats counts for the load of the courses, or null if they were not loaded from a file
+	 * @throws IllegalArgumentException if the list of courses is null
+	 */
+	public CourseCatalog(List<Course> courses, CourseRecordStats stats) {
+		if(courses == null) {
+			throw new IllegalArgumentException("Invalid catalog.");
+		}
+		Store added = new Store(courses.size());
+		synchronized(added) {
+			added.add(courses);
+		}
+		this.store = added;
+		this.size = added.size;
+		this.courses = Collections.unmodifiableList(Arrays.asList(added.courses).subList(0, size));
+		this.catalogDays = added.days;
+		this.catalogStarts = added.starts;
+		this.catalogEnds = added.ends;
+		this.stats = stats == null ? new CourseRecordStats() : stats;
+	}
+
+	/**
+	 * Constructs a catalog of the rows of a store added so far.  Must be called while holding
+	 * the lock of the store.
+	 * @param store holding the courses
+	 * @param stats counts for the load of the courses
+	 */
+	private CourseCatalog(Store store, CourseRecordStats stats) {
+		this.store = store;
+		this.size = store.size;
+		this.courses = Collections.unmodifiableList(Arrays.asList(store.courses).subList(0, size));
+		this.catalogDays = store.days;
+		this.catalogStarts = store.starts;
+		this.catalogEnds = store.ends;
+		this.stats = stats;
+	}
+
+	/**
+	 * Constructs a catalog of the same courses as another, with other stats
+	 * @param catalog whose courses and indexes are shared
+	 * @param stats counts for the load of the courses
+	 */
+	private CourseCatalog(CourseCatalog catalog, CourseRecordStats stats) {
+		this.store = catalog.store;
+		this.size = catalog.size;
+		this.courses = catalog.courses;
+		this.catalogDays = catalog.catalogDays;
+		this.catalogStarts = catalog.catalogStarts;
+		this.catalogEnds = catalog.catalogEnds;
+		this.stats = stats;
+		this.timeIndex = catalog.timeIndex;
+		this.bitmaps = catalog.bitmaps;
+	}
+
+	/**
+	 * Loads a catalog from a course records file, using the snapshot next to the file when
+	 * the file has not changed since it was written
+	 * @param fileName file to read Course records from
+	 * @return the catalog
+	 * @throws IOException if the file cannot be found or read
+	 */
+	public static CourseCatalog load(String fileName) throws IOException {
+		CourseRecordStats stats = new CourseRecordStats();
+		List<Course> loaded = CourseRecordIO.readCourseRecordsCached(fileName, stats);
+		return new CourseCatalog(loaded, stats);
+	}
+
+	/**
+	 * Returns a new catalog with the courses of this one followed by the given courses.  This
+	 * catalog does not change, so sessions sharing it are not affected.  The courses are added
+	 * to the store this catalog shares with the catalogs built from it, unless a larger
+	 * catalog was already built from this one, in which case this catalog's rows are copied
+	 * to a new store first.
+	 * @param more courses to add, a course whose name and section are already in the catalog
+	 * is skipped
+	 * @return the larger catalog
+	 * @throws IllegalArgumentException if the list of courses is null
+	 */
+	public CourseCatalog withCourses(List<Course> more) {
+		if(more == null) {
+			throw new IllegalArgumentException("Invalid catalog.");
+		}
+		return withCourses(more, stats);
+	}
+
+	/**
+	 * Returns a new catalog with the courses of this one followed by the given courses, as
+	 * described for {@link #withCourses(List)}
+	 * @param more courses to add
+	 * @param moreStats counts for the new catalog
+	 * @return the larger catalog
+	 */
+	private CourseCatalog withCourses(List<Course> more, CourseRecordStats moreStats) {
+		synchronized(store) {
+			if(store.size == size) {
+				store.add(more);
+				return new CourseCatalog(store, moreStats);
+			}
+		}
+		Store copy = new Store(size + more.size());
+		synchronized(copy) {
+			copy.add(courses);
+			copy.add(more);
+			return new CourseCatalog(copy, moreStats);
+		}
+	}
+
+	/**
+	 * Returns a new catalog of the courses in a watched file after it changed, given the
+	 * changes from the load this catalog holds.  Only the added and modified courses are
+	 * indexed.  When courses were only added at the end of the file, they are added to the
+	 * store as with {@link #withCourses(List)}, sharing the search index.  Otherwise the rows
+	 * after a removed or inserted course move, so the courses go into a new store, and the
+	 * store's keys and every index this catalog has built are copied with the rows of the kept
+	 * courses moved.  If the kept courses are not in the same order as in this catalog, or the
+	 * changes are not from this catalog's load, the catalog is built from scratch.
+	 * @param changes from the load this catalog holds to the next one
+	 * @return the catalog after the changes
+	 */
+	CourseCatalog withChanges(CourseRecordChanges changes) {
+		List<Course> next = changes.getCourses();
+		int[] newRows = keptRows(changes);
+		if(newRows == null) {
+			return new CourseCatalog(next, changes.getStats());
+		}
+		boolean appended = next.size() >= size;
+		for(int row = 0; row < size && appended; row++) {
+			appended = newRows[row] == row;
+		}
+
+		CourseCatalog changed;
+		if(appended) {
+			changed = withCourses(next.subList(size, next.size()), changes.getStats());
+		} else {
+			Store moved = new Store(store, newRows, next);
+			if(moved.rowsByKey.size() != next.size()) {
+				return new CourseCatalog(next, changes.getStats());
+			}
+			synchronized(moved) {
+				changed = new CourseCatalog(moved, changes.getStats());
+			}
+		}
+		CatalogTimeIndex times = timeIndex;
+		if(times != null) {
+			changed.timeIndex = new CatalogTimeIndex(times, newRows, changed.catalogDays,
+					changed.catalogStarts, changed.catalogEnds, changed.size);
+		}
+		CatalogBitmaps maps = bitmaps;
+		if(maps != null) {
+			changed.bitmaps = new CatalogBitmaps(maps, newRows, changed.courses);
+		}
+		return changed;
+	}
+
+	/**
+	 * Finds where every course of this catalog that a change kept went in the new list of
+	 * courses.  The kept courses are the ones neither added nor modified by the change, and
+	 * are looked for in this catalog in order.
+	 * @param changes from the load this catalog holds to the next one
+	 * @return new row of every row of this catalog, or -1 if its course was removed or
+	 * modified, or null if the kept courses are not all in this catalog in the same order
+	 */
+	private int[] keptRows(CourseRecordChanges changes) {
+		Set<Course> changedCourses = Collections.newSetFromMap(new IdentityHashMap<Course, Boolean>());
+		changedCourses.addAll(changes.getAdded());
+		changedCourses.addAll(changes.getModified());
+		int[] newRows = new int[size];
+		Arrays.fill(newRows, -1);
+		List<Course> next = changes.getCourses();
+		int row = 0;
+		for(int i = 0; i < next.size(); i++) {
+			Course course = next.get(i);
+			if(changedCourses.contains(course)) {
+				continue;
+			}
+			while(row < size && !courses.get(row).equals(course)) {
+				row++;
+			}
+			if(row == size) {
+				return null;
+			}
+			newRows[row++] = i;
+		}
+		return newRows;
+	}
+
+	/**
+	 * Returns a new catalog with the same courses and indexes as this one and the given
+	 * counts, for a catalog filled in batches whose counts are only known once it is loaded
+	 * @param loadStats counts for the load of the courses, or null for empty counts
+	 * @return the catalog with the counts
+	 */
+	public CourseCatalog withStats(CourseRecordStats loadStats) {
+		return new CourseCatalog(this, loadStats == null ? new CourseRecordStats() : loadStats);
+	}
+
+	/**
+	 * Returns the version of the catalog, which is higher for catalogs built later
+	 * @return the version
+	 */
+	public long getVersion() {
+		return version;
+	}
+
+	/**
+	 * Returns the number of courses in the catalog
+	 * @return number of rows in the catalog
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Returns the course at a row of the catalog
+	 * @param row index of the course in the catalog
+	 * @return the course
+	 * @throws IndexOutOfBoundsException if the row is out of range
+	 */
+	public Course get(int row) {
+		return courses.get(row);
+	}
+
+	/**
+	 * Returns every course in catalog order
+	 * @return unmodifiable list of the courses
+	 */
+	public List<Course> getCourses() {
+		return courses;
+	}
+
+	/**
+	 * Returns the course with the given name and section
+	 * @param name of the course
+	 * @param section of the course
+	 * @return the course, or null if it is not in the catalog
+	 */
+	public Course getCourse(String name, String section) {
+		if(name == null || section == null) {
+			return null;
+		}
+		Integer row = store.rowsByKey.get(catalogKey(name, section));
+		return row == null || row >= size ? null : courses.get(row);
+	}
+
+	/**
+	 * Returns every section of the course with the given name in catalog order
+	 * @param name of the course
+	 * @return unmodifiable list of the course's sections, empty if the course is not in the catalog
+	 */
+	public List<Course> getSections(String name) {
+		int[] rows = name == null ? null : store.rowsByName.get(name);
+		if(rows == null) {
+			return Collections.emptyList();
+		}
+		int count = 0;
+		while(count < rows.length && rows[count] < size) {
+			count++;
+		}
+		Course[] sections = new Course[count];
+		for(int i = 0; i < count; i++) {
+			sections[i] = courses.get(rows[i]);
+		}
+		return Collections.unmodifiableList(Arrays.asList(sections));
+	}
+
+	/**
+	 * Returns the counts of lines read, invalid lines and duplicates dropped when the
+	 * catalog was loaded
+	 * @return stats for the catalog load
+	 */
+	public CourseRecordStats getStats() {
+		return stats;
+	}
+
+	/**
+	 * Returns true if the course at a row does not meet at any minute already taken
+	 * @param row index of the course in the catalog
+	 * @param occupancy minutes already taken
+	 * @return true if the course fits
+	 */
+	boolean fits(int row, ScheduleOccupancy occupancy) {
+		return occupancy.fits(catalogDays[row], catalogStarts[row], catalogEnds[row]);
+	}
+
+	/**
+	 * Builds the search index, time index and bitmaps now, so the first reader of a newly
+	 * published catalog does not have to wait for them
+	 */
+	void buildIndexes() {
+		getSearchIndex();
+		getTimeIndex();
+		getBitmaps();
+	}
+
+	/**
+	 * Searches the names, titles and instructors of the courses
+	 * @param query text to look for
+	 * @return matching rows in catalog order, every row if the query is blank
+	 * @see CatalogSearchIndex#search(String, int)
+	 */
+	int[] search(String query) {
+		return getSearchIndex().search(query, size);
+	}
+
+	/**
+	 * Returns the search index shared with the catalogs built from this one, building it on
+	 * first use.  It indexes every row of the store, so it is searched up to this catalog's
+	 * size.
+	 * @return the search index
+	 */
+	CatalogSearchIndex getSearchIndex() {
+		CatalogSearchIndex index = store.searchIndex;
+		if(index == null) {
+			synchronized(store) {
+				index = store.searchIndex;
+				if(index == null) {
+					index = new CatalogSearchIndex();
+					for(int row = 0; row < store.size; row++) {
+						index.add(store.courses[row]);
+					}
+					store.searchIndex = index;
+				}
+			}
+		}
+		return index;
+	}
+
+	/**
+	 * Returns the time index, building it on first use
+	 * @return the time index
+	 */
+	CatalogTimeIndex getTimeIndex() {
+		CatalogTimeIndex index = timeIndex;
+		if(index == null) {
+			index = new CatalogTimeIndex(catalogDays, catalogStarts, catalogEnds, courses.size());
+			timeIndex = index;
+		}
+		return index;
+	}
+
+	/**
+	 * Returns the attribute bitmaps, building them on first use
+	 * @return the bitmaps
+	 */
+	CatalogBitmaps getBitmaps() {
+		CatalogBitmaps index = bitmaps;
+		if(index == null) {
+			index = new CatalogBitmaps(courses);
+			bitmaps = index;
+		}
+		return index;
+	}
+
+	/**
+	 * Returns the key used by the catalog index for a name and section.  Course names
+	 * and sections can never contain a comma, so the key is unique.
+	 * @param name of the course
+	 * @param section of the course
+	 * @return key for the catalog index
+	 */
+	private static String catalogKey(String name, String section) {
+		return name + "," + section;
+	}
+
+	/**
+	 * Courses and indexes of a catalog and the larger catalogs built from it.  Courses are only
+	 * added at the end, while holding the lock of the store, and a row never changes once
+	 * written.  The arrays are replaced by larger copies when they fill up, so a catalog keeps
+	 * the arrays it was built with and reads only its own rows of them.
+	 */
+	private static final class Store {
+
+		/** Courses in catalog order, with room for more */
+		private Course[] courses;
+
+		/** Meeting days mask of every course, in catalog order */
+		private int[] days;
+
+		/** Start minute of every course, in catalog order */
+		private int[] starts;
+
+		/** End minute of every course, in catalog order */
+		private int[] ends;
+
+		/** Number of rows added */
+		private int size;
+
+		/** Row of every course keyed by the course's name and section */
+		private final ConcurrentHashMap<String, Integer> rowsByKey;
+
+		/** Rows of every section of a course in catalog order, keyed by the course's name */
+		private final ConcurrentHashMap<String, int[]> rowsByName = new ConcurrentHashMap<String, int[]>();
+
+		/** Index of the names, titles and instructors of every row, or null until the first search */
+		private volatile CatalogSearchIndex searchIndex;
+
+		/**
+		 * Constructs an empty store
+		 * @param capacity number of courses expected
+		 */
+		Store(int capacity) {
+			capacity = Math.max(capacity, 16);
+			courses = new Course[capacity];
+			days = new int[capacity];
+			starts = new int[capacity];
+			ends = new int[capacity];
+			rowsByKey = new ConcurrentHashMap<String, Integer>(capacity * 2);
+		}
+
+		/**
+		 * Constructs a store of a catalog made from one of another store by a change to its
+		 * courses.  The keys of the kept courses are moved to their new rows rather than built
+		 * again, and so is the search index if the other store has one.  Only the courses that
+		 * were not kept are keyed and indexed.
+		 * @param old store of the older catalog
+		 * @param newRows new row of every row of the older catalog, or -1 if its course was
+		 * not kept.  Kept courses must be in the same order in both catalogs.
+		 * @param next every course of the new catalog in catalog order
+		 */
+		Store(Store old, int[] newRows, List<Course> next) {
+			this(next.size());
+			boolean[] kept = new boolean[next.size()];
+			for(int row : newRows) {
+				if(row >= 0) {
+					kept[row] = true;
+				}
+			}
+			for(Map.Entry<String, Integer> entry : old.rowsByKey.entrySet()) {
+				int row = entry.getValue();
+				if(row < newRows.length && newRows[row] >= 0) {
+					rowsByKey.put(entry.getKey(), newRows[row]);
+				}
+			}
+			for(Map.Entry<String, int[]> entry : old.rowsByName.entrySet()) {
+				int[] rows = entry.getValue();
+				int[] moved = new int[rows.length];
+				int count = 0;
+				for(int row : rows) {
+					if(row < newRows.length && newRows[row] >= 0) {
+						moved[count++] = newRows[row];
+					}
+				}
+				if(count > 0) {
+					rowsByName.put(entry.getKey(), Arrays.copyOf(moved, count));
+				}
+			}
+
+			for(int row = 0; row < next.size(); row++) {
+				Course c = next.get(row);
+				courses[row] = c;
+				days[row] = c.getMeetingDaysMask();
+				starts[row] = c.getStartMinute();
+				ends[row] = c.getEndMinute();
+				if(!kept[row]) {
+					c.freeze();
+					rowsByKey.putIfAbsent(catalogKey(c.getName(), c.getSection()), row);
+					int[] sections = rowsByName.get(c.getName());
+					if(sections == null) {
+						sections = new int[] {row};
+					} else {
+						int at = -Arrays.binarySearch(sections, row) - 1;
+						int[] more = new int[sections.length + 1];
+						System.arraycopy(sections, 0, more, 0, at);
+						more[at] = row;
+						System.arraycopy(sections, at, more, at + 1, sections.length - at);
+						sections = more;
+					}
+					rowsByName.put(c.getName(), sections);
+				}
+			}
+			size = next.size();
+			CatalogSearchIndex index = old.searchIndex;
+			if(index != null) {
+				searchIndex = new CatalogSearchIndex(index, newRows, next);
+			}
+		}
+
+		/**
+		 * Adds courses to the end of the store, skipping a course whose name and section are
+		 * already in it, and freezes every course added.  Must be called while holding the
+		 * lock of the store.
+		 * @param more courses to add in catalog order
+		 */
+		void add(List<Course> more) {
+			if(size + more.size() > courses.length) {
+				int capacity = Math.max(size + more.size(), courses.length * 2);
+				courses = Arrays.copyOf(courses, capacity);
+				days = Arrays.copyOf(days, capacity);
+				starts = Arrays.copyOf(starts, capacity);
+				ends = Arrays.copyOf(ends, capacity);
+			}
+			CatalogSearchIndex index = searchIndex;
+			for(Course c : more) {
+				String key = catalogKey(c.getName(), c.getSection());
+				if(rowsByKey.putIfAbsent(key, size) != null) {
+					continue;
+				}
+				c.freeze();
+				int row = size;
+				courses[row] = c;
+				days[row] = c.getMeetingDaysMask();
+				starts[row] = c.getStartMinute();
+				ends[row] = c.getEndMinute();
+
+				int[] sections = rowsByName.get(c.getName());
+				if(sections == null) {
+					sections = new int[] {row};
+				} else {
+					sections = Arrays.copyOf(sections, sections.length + 1);
+					sections[sections.length - 1] = row;
+				}
+				rowsByName.put(c.getName(), sections);
+				if(index != null) {
+					index.add(c);
+				}
+				size++;
+			}
+		}
+	}
+}
@@ -0,0 +1,363 @@
+package edu.ncsu.csc216.wolf_scheduler.scheduler;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+import edu.ncsu.csc216.wolf_scheduler.course.Course;
+
+/**
+ * Seat limits and waitlists of course sections, shared by every {@link WolfScheduler} session
+ * enrolling in them.  Sections are matched by name and section, so the limits keep applying
+ * when the catalog is replaced.  A section without a limit has as many seats as are wanted.
+ *
+ * Each section a session enrolled in keeps its capacity and the number of seats taken in a
+ * single atomic counter, along with the sessions holding the seats.  A session takes a seat
+ * with a compare and set while it adds the course to its schedule, and gives it back while
+ * the course leaves its schedule, both under the lock of its own schedule.  No lock is ever
+ * held on a section, so a full section turns away any number of sessions at the cost of one
+ * read each.  A session holds a seat in a section exactly while the course is in its
+ * schedule, and only a session holding a seat can give one back, so a section is never
+ * oversubscribed.  Seats are counted in sections without a limit too, so a limit set later
+ * counts the students already enrolled.
+ *
+ * Sessions can wait for a full section.  A seat given back goes to the first waiting session
+ * that can still fit the course, and sessions that did not wait can only take a seat while no
+ * one is waiting.
+ *
+ * @author Riya Gunda
+ */
+public final class EnrollmentRegistry {
+
+	/** Capacity reported for a section without a seat limit */
+	public static final int UNLIMITED = -1;
+
+	/** Seats and waitlist of every section with a limit or an enrollment, by name and section */
+	private final ConcurrentHashMap<String, Seats> sections = new ConcurrentHashMap<String, Seats>();
+
+	/**
+	 * Sets the number of seats in a section.  Students already enrolled keep their seats and
+	 * count against the limit.  Lowering the limit below the number of enrolled students does
+	 * not drop any of them, but no one else gets a seat until enough have left.
+	 * @param name of the course
+	 * @param section of the course
+	 * @param capacity number of seats
+	 * @throws IllegalArgumentException if the name or section is null or the capacity is negative
+	 */
+	public void setCapacity(String name, String section, int capacity) {
+		if(name == null || section == null || capacity < 0) {
+			throw new IllegalArgumentException("Invalid capacity.");
+		}
+		Seats seats = seats(name, section);
+		seats.setCapacity(capacity);
+		fillFromWaitlist(seats);
+	}
+
+	/**
+	 * Returns the number of seats in a section
+	 * @param name of the course
+	 * @param section of the course
+	 * @return number of seats, or {@link #UNLIMITED} if the section has no limit
+	 */
+	public int getCapacity(String name, String section) {
+		Seats seats = sections.get(key(name, section));
+		return seats == null ? UNLIMITED : Seats.capacity(seats.state.get());
+	}
+
+	/**
+	 * Returns the number of seats in a section that are not taken
+	 * @param name of the course
+	 * @param section of the course
+	 * @return number of open seats, or {@link #UNLIMITED} if the section has no limit
+	 */
+	public int getOpenSeats(String name, String section) {
+		Seats seats = sections.get(key(name, section));
+		if(seats == null) {
+			return UNLIMITED;
+		}
+		long state = seats.state.get();
+		int capacity = Seats.capacity(state);
+		return capacity == UNLIMITED ? UNLIMITED : Math.max(0, capacity - Seats.enrolled(state));
+	}
+
+	/**
+	 * Returns the number of seats in a section that are taken
+	 * @param name of the course
+	 * @param section of the course
+	 * @return number of enrolled students
+	 */
+	public int getEnrolled(String name, String section) {
+		Seats seats = sections.get(key(name, section));
+		return seats == null ? 0 : Seats.enrolled(seats.state.get());
+	}
+
+	/**
+	 * Returns the number of sessions waiting for a seat in a section
+	 * @param name of the course
+	 * @param section of the course
+	 * @return number of waiting sessions
+	 */
+	public int getWaitlistSize(String name, String section) {
+		Seats seats = sections.get(key(name, section));
+		return seats == null ? 0 : seats.waiting.size();
+	}
+
+	/**
+	 * Takes a seat in the course's section for a session adding it to its schedule.  A seat
+	 * is only taken while no session is waiting for one.  Must be called while holding the
+	 * lock of the session's schedule.
+	 * @param course to take a seat in
+	 * @param session adding the course
+	 * @return true if a seat was taken
+	 */
+	boolean reserve(Course course, WolfScheduler session) {
+		Seats seats = seats(course.getName(), course.getSection());
+		if(!seats.waiting.isEmpty() || !seats.take()) {
+			return false;
+		}
+		if(!seats.holders.add(session)) {
+			seats.giveBack();
+			return false;
+		}
+		return true;
+	}
+
+	/**
+	 * Records that a session given a seat from the waitlist holds it, as the course is added
+	 * to its schedule.  Must be called while holding the lock of the session's schedule.
+	 * @param course the seat was given for
+	 * @param session given the seat
+	 * @return true if the session did not already hold a seat in the section
+	 */
+	boolean hold(Course course, WolfScheduler session) {
+		return seats(course.getName(), course.getSection()).holders.add(session);
+	}
+
+	/**
+	 * Gives back the seat a session held for a course that is leaving its schedule.  Nothing
+	 * is given back if the session did not hold a seat in the section.  Must be called while
+	 * holding the lock of the session's schedule, so the seat is given back together with the
+	 * schedule change, and followed by {@link #fillWaitlist(Course)} once the lock is released.
+	 * @param course leaving a schedule
+	 * @param session the course is leaving
+	 */
+	void release(Course course, WolfScheduler session) {
+		Seats seats = sections.get(key(course.getName(), course.getSection()));
+		if(seats != null && seats.holders.remove(session)) {
+			seats.giveBack();
+		}
+	}
+
+	/**
+	 * Hands the open seats of the course's section to the sessions waiting for them.  Must not
+	 * be called while holding the lock of a session's schedule.
+	 * @param course whose section may have open seats
+	 */
+	void fillWaitlist(Course course) {
+		Seats seats = sections.get(key(course.getName(), course.getSection()));
+		if(seats != null) {
+			fillFromWaitlist(seats);
+		}
+	}
+
+	/**
+	 * Adds a session to the end of the waitlist of the course's section unless it is already
+	 * waiting.  Must be called while holding the lock of the session's schedule, and followed
+	 * by {@link #fillWaitlist(Course)} once the lock is released, which gives the session a
+	 * seat at once if one is open.
+	 * @param course to wait for
+	 * @param session waiting for the course
+	 * @return true if the section has a limit, so the session could wait
+	 */
+	boolean joinWaitlist(Course course, WolfScheduler session) {
+		Seats seats = sections.get(key(course.getName(), course.getSection()));
+		if(seats == null || Seats.capacity(seats.state.get()) == UNLIMITED) {
+			return false;
+		}
+		Waiting waiting = new Waiting(session, course);
+		if(seats.waiting.putIfAbsent(session, waiting) == null) {
+			seats.waitlist.add(waiting);
+		}
+		return true;
+	}
+
+	/**
+	 * Removes a session from the waitlist of a section.  Must be called while holding the
+	 * lock of the session's schedule.
+	 * @param name of the course
+	 * @param section of the course
+	 * @param session to remove
+	 * @return true if the session was waiting
+	 */
+	boolean leaveWaitlist(String name, String section, WolfScheduler session) {
+		Seats seats = sections.get(key(name, section));
+		if(seats == null) {
+			return false;
+		}
+		Waiting waiting = seats.waiting.remove(session);
+		if(waiting == null) {
+			return false;
+		}
+		seats.waitlist.remove(waiting);
+		return true;
+	}
+
+	/**
+	 * Hands open seats to waiting sessions in order until either runs out.  A session that
+	 * can no longer fit the course loses its place and the seat goes to the next one.  A place
+	 * left behind by a session that stopped waiting after the place was taken from the queue
+	 * is skipped.  Every
+	 * change that opens a seat or adds a waiting session calls this afterwards, so a seat is
+	 * never left open while a session that can take it is waiting.
+	 * @param seats of the section
+	 */
+	private void fillFromWaitlist(Seats seats) {
+		while(!seats.waitlist.isEmpty() && seats.take()) {
+			Waiting next = seats.waitlist.poll();
+			if(next == null || !seats.waiting.remove(next.session, next)
+					|| !next.session.enrollFromWaitlist(next.course)) {
+				seats.giveBack();
+			}
+		}
+	}
+
+	/**
+	 * Returns the seats of a section, adding a section without a limit if it has none yet
+	 * @param name of the course
+	 * @param section of the course
+	 * @return seats of the section
+	 */
+	private Seats seats(String name, String section) {
+		String key = key(name, section);
+		Seats seats = sections.get(key);
+		if(seats == null) {
+			Seats added = new Seats();
+			seats = sections.putIfAbsent(key, added);
+			if(seats == null) {
+				seats = added;
+			}
+		}
+		return seats;
+	}
+
+	/**
+	 * Returns the key of a section
+	 * @param name of the course
+	 * @param section of the course
+	 * @return key for the sections map
+	 */
+	private static String key(String name, String section) {
+		return name + "," + section;
+	}
+
+	/**
+	 * Seats, seat holders and waitlist of one section
+	 */
+	private static class Seats {
+
+		/**
+		 * Capacity in the high 32 bits, {@link #UNLIMITED} if there is no limit, and the number
+		 * of seats taken in the low 32 bits.  Both are changed together, so a seat is never
+		 * taken against a capacity that was just lowered.
+		 */
+		private final AtomicLong state = new AtomicLong(state(UNLIMITED, 0));
+
+		/** Sessions holding a seat */
+		private final Set<WolfScheduler> holders = ConcurrentHashMap.newKeySet();
+
+		/** Places of the sessions waiting for a seat, in the order they started waiting */
+		private final ConcurrentLinkedQueue<Waiting> waitlist = new ConcurrentLinkedQueue<Waiting>();
+
+		/** Place in the waitlist of every waiting session, so a session waits at most once */
+		private final ConcurrentHashMap<WolfScheduler, Waiting> waiting = new ConcurrentHashMap<WolfScheduler, Waiting>();
+
+		/**
+		 * Takes a seat if the section has no limit or has a seat open
+		 * @return true if a seat is now taken
+		 */
+		boolean take() {
+			while(true) {
+				long current = state.get();
+				int capacity = capacity(current);
+				int enrolled = enrolled(current);
+				if(capacity != UNLIMITED && enrolled >= capacity) {
+					return false;
+				}
+				if(state.compareAndSet(current, state(capacity, enrolled + 1))) {
+					return true;
+				}
+			}
+		}
+
+		/**
+		 * Gives back a taken seat
+		 */
+		void giveBack() {
+			state.decrementAndGet();
+		}
+
+		/**
+		 * Sets the capacity, keeping the seats taken
+		 * @param capacity number of seats
+		 */
+		void setCapacity(int capacity) {
+			while(true) {
+				long current = state.get();
+				if(state.compareAndSet(current, state(capacity, enrolled(current)))) {
+					return;
+				}
+			}
+		}
+
+		/**
+		 * Returns the counter value for a capacity and number of seats taken
+		 * @param capacity number of seats, or {@link #UNLIMITED}
+		 * @param enrolled number of seats taken
+		 * @return counter value
+		 */
+		static long state(int capacity, int enrolled) {
+			return (long) capacity << 32 | enrolled;
+		}
+
+		/**
+		 * Returns the capacity in a counter value
+		 * @param state counter value
+		 * @return number of seats, or {@link #UNLIMITED}
+		 */
+		static int capacity(long state) {
+			return (int) (state >> 32);
+		}
+
+		/**
+		 * Returns the number of seats taken in a counter value
+		 * @param state counter value
+		 * @return number of seats taken
+		 */
+		static int enrolled(long state) {
+			return (int) state;
+		}
+	}
+
+	/**
+	 * Session waiting for a seat, with the course it asked for
+	 */
+	private static class Waiting {
+
+		/** Session waiting */
+		private final WolfScheduler session;
+
+		/** Course the session will add when it gets a seat */
+		private final Course course;
+
+		/**
+		 * Constructs a waiting session
+		 * @param session waiting
+		 * @param course it asked for
+		 */
+		Waiting(WolfScheduler session, Course course) {
+			this.session = session;
+			this.course = course;
+		}
+	}
+}
@@ -0,0 +1,99 @@
+package edu.ncsu.csc216.wolf_scheduler.scheduler;
+
+import java.util.ArrayList;
+import java.util.Map;
+import java.util.TreeMap;
+
+import edu.ncsu.csc216.wolf_scheduler.course.Activity;
+
+/**
+ * Index of the activities in a schedule, with one sorted map per day of the week from the
+ * start minute of an activity to the activity.  Activities in a schedule never conflict, so
+ * the activities on one day never overlap and a conflict query only has to look at the
+ * activity starting just before the candidate and the ones starting during it.
+ * 
+ * @author Riya Gunda
+ */
+class ScheduleConflictIndex {
+	
+	/** Activities meeting on each day of the week, keyed by start minute */
+	private ArrayList<TreeMap<Integer, Activity>> days;
+	
+	/**
+	 * Constructs an empty index
+	 */
+	ScheduleConflictIndex() {
+		days = new ArrayList<TreeMap<Integer, Activity>>();
+		for(int i = 0; i < Activity.WEEK_DAYS.length(); i++) {
+			days.add(new TreeMap<Integer, Activity>());
+		}
+	}
+	
+	/**
+	 * Constructs a copy of another index
+	 * @param other index to copy
+	 */
+	ScheduleConflictIndex(ScheduleConflictIndex other) {
+		days = new ArrayList<TreeMap<Integer, Activity>>();
+		for(TreeMap<Integer, Activity> day : other.days) {
+			days.add(new TreeMap<Integer, Activity>(day));
+		}
+	}
+	
+	/**
+	 * Adds an activity to every day it meets on.  The activity must not conflict with any
+	 * activity already in the index.
+	 * @param activity to add
+	 */
+	void add(Activity activity) {
+		int mask = activity.getMeetingDaysMask();
+		for(int i = 0; i < days.size(); i++) {
+			if((mask & (1 << i)) != 0) {
+				days.get(i).put(activity.getStartMinute(), activity);
+			}
+		}
+	}
+	
+	/**
+	 * Removes an activity from every day it meets on
+	 * @param activity to remove
+	 */
+	void remove(Activity activity) {
+		int mask = activity.getMeetingDaysMask();
+		for(int i = 0; i < days.size(); i++) {
+			if((mask & (1 << i)) != 0 && days.get(i).get(activity.getStartMinute()) == activity) {
+				days.get(i).remove(activity.getStartMinute());
+			}
+		}
+	}
+	
+	/**
+	 * Returns every activity in the index that conflicts with the given activity, each one
+	 * listed once in the order it is first found from Sunday to Saturday
+	 * @param activity to check
+	 * @return activities that conflict with the activity
+	 */
+	ArrayList<Activity> getConflicts(Activity activity) {
+		ArrayList<Activity> conflicts = new ArrayList<Activity>();
+		int mask = activity.getMeetingDaysMask();
+		int start = activity.getStartMinute();
+		int end = activity.getEndMinute();
+		for(int i = 0; i < days.size(); i++) {
+			if((mask & (1 << i)) == 0) {
+				continue;
+			}
+			TreeMap<Integer, Activity> day = days.get(i);
+			Map.Entry<Integer, Activity> before = day.floorEntry(start);
+			if(before != null && before.getValue().getEndMinute() >= start 
+					&& !conflicts.contains(before.getValue())) {
+				conflicts.add(before.getValue());
+			}
+			for(Activity during : day.subMap(start, false, end, true).values()) {
+				if(!conflicts.contains(during)) {
+					conflicts.add(during);
+				}
+			}
+		}
+		return conflicts;
+	}
+}
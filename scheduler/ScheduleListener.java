@@ -0,0 +1,40 @@
+package edu.ncsu.csc216.wolf_scheduler.scheduler;
+
+import edu.ncsu.csc216.wolf_scheduler.course.Activity;
+
+/**
+ * Listens for changes to the schedule of a {@link WolfScheduler}.  Every change is reported
+ * after it is made, with the index the activity has or had in the schedule, so a view of the
+ * schedule can apply the change without reading the whole schedule again.  Listeners are
+ * called on the thread making the change, one change at a time, while the scheduler's lock
+ * is held, so they must not wait for another thread that changes the same schedule.
+ *
+ * @author Riya Gunda
+ */
+public interface ScheduleListener {
+
+	/**
+	 * Called after an activity is added to the schedule
+	 * @param index of the activity in the schedule
+	 * @param activity that was added
+	 */
+	void activityAdded(int index, Activity activity);
+
+	/**
+	 * Called after an activity is removed from the schedule
+	 * @param index the activity had in the schedule
+	 * @param activity that was removed
+	 */
+	void activityRemoved(int index, Activity activity);
+
+	/**
+	 * Called after every activity is removed from the schedule at once
+	 */
+	void scheduleReset();
+
+	/**
+	 * Called after the title of the schedule is set
+	 * @param title new title of the schedule
+	 */
+	void scheduleTitleChanged(String title);
+}
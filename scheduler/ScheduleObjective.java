@@ -0,0 +1,217 @@
+package edu.ncsu.csc216.wolf_scheduler.scheduler;
+
+import java.util.HashSet;
+import java.util.List;
+
+import edu.ncsu.csc216.wolf_scheduler.course.Activity;
+import edu.ncsu.csc216.wolf_scheduler.course.Course;
+
+/**
+ * Weighted objective used to rank conflict free schedules, where a lower cost is a better
+ * schedule.  The cost adds up the following terms, each multiplied by its weight:
+ * - idle gap: minutes between consecutive activities on the same day, summed over the week
+ * - early start: minutes from the earliest start of the week until midnight, so earlier
+ *   starts cost more
+ * - late end: the latest end of the week in minutes since midnight
+ * - campus days: number of days with at least one activity
+ * - instructors: number of courses not taught by a preferred instructor
+ * Arranged courses have no meeting days, so they only count toward the instructor term.
+ * Every weight starts at 0.
+ *
+ * @author Riya Gunda
+ */
+public class ScheduleObjective {
+
+	/** Number of minutes in a day */
+	private static final int MINUTES_PER_DAY = Activity.UPPER_HOUR * Activity.UPPER_MIN;
+
+	/** Weight of the idle gap minutes */
+	private double gapWeight;
+
+	/** Weight of the early start term */
+	private double earlyStartWeight;
+
+	/** Weight of the late end term */
+	private double lateEndWeight;
+
+	/** Weight of the number of campus days */
+	private double campusDayWeight;
+
+	/** Weight of every course not taught by a preferred instructor */
+	private double instructorWeight;
+
+	/** Unity IDs of the preferred instructors */
+	private HashSet<String> preferredInstructors = new HashSet<String>();
+
+	/**
+	 * Returns the weight of the idle gap minutes
+	 * @return the gapWeight
+	 */
+	public double getGapWeight() {
+		return gapWeight;
+	}
+
+	/**
+	 * Sets the weight of the idle gap minutes
+	 * @param gapWeight the gapWeight to set
+	 * @throws IllegalArgumentException if the weight is negative
+	 */
+	public void setGapWeight(double gapWeight) {
+		this.gapWeight = checkWeight(gapWeight);
+	}
+
+	/**
+	 * Returns the weight of the early start term
+	 * @return the earlyStartWeight
+	 */
+	public double getEarlyStartWeight() {
+		return earlyStartWeight;
+	}
+
+	/**
+	 * Sets the weight of the early start term
+	 * @param earlyStartWeight the earlyStartWeight to set
+	 * @throws IllegalArgumentException if the weight is negative
+	 */
+	public void setEarlyStartWeight(double earlyStartWeight) {
+		this.earlyStartWeight = checkWeight(earlyStartWeight);
+	}
+
+	/**
+	 * Returns the weight of the late end term
+	 * @return the lateEndWeight
+	 */
+	public double getLateEndWeight() {
+		return lateEndWeight;
+	}
+
+	/**
+	 * Sets the weight of the late end term
+	 * @param lateEndWeight the lateEndWeight to set
+	 * @throws IllegalArgumentException if the weight is negative
+	 */
+	public void setLateEndWeight(double lateEndWeight) {
+		this.lateEndWeight = checkWeight(lateEndWeight);
+	}
+
+	/**
+	 * Returns the weight of the number of campus days
+	 * @return the campusDayWeight
+	 */
+	public double getCampusDayWeight() {
+		return campusDayWeight;
+	}
+
+	/**
+	 * Sets the weight of the number of campus days
+	 * @param campusDayWeight the campusDayWeight to set
+	 * @throws IllegalArgumentException if the weight is negative
+	 */
+	public void setCampusDayWeight(double campusDayWeight) {
+		this.campusDayWeight = checkWeight(campusDayWeight);
+	}
+
+	/**
+	 * Returns the weight of every course not taught by a preferred instructor
+	 * @return the instructorWeight
+	 */
+	public double getInstructorWeight() {
+		return instructorWeight;
+	}
+
+	/**
+	 * Sets the weight of every course not taught by a preferred instructor
+	 * @param instructorWeight the instructorWeight to set
+	 * @throws IllegalArgumentException if the weight is negative
+	 */
+	public void setInstructorWeight(double instructorWeight) {
+		this.instructorWeight = checkWeight(instructorWeight);
+	}
+
+	/**
+	 * Adds a preferred instructor
+	 * @param instructorId unity ID of the instructor
+	 */
+	public void addPreferredInstructor(String instructorId) {
+		preferredInstructors.add(instructorId);
+	}
+
+	/**
+	 * Returns true if the course is taught by a preferred instructor
+	 * @param course to check
+	 * @return true if the course's instructor is preferred
+	 */
+	public boolean isPreferred(Course course) {
+		return preferredInstructors.contains(course.getInstructorId());
+	}
+
+	/**
+	 * Returns the cost of a set of courses that do not conflict
+	 * @param courses in the schedule
+	 * @return cost of the schedule, lower is better
+	 */
+	public double cost(List<Course> courses) {
+		int earliest = MINUTES_PER_DAY;
+		int latest = -1;
+		int days = 0;
+		int notPreferred = 0;
+		for (Course c : courses) {
+			if (c.getMeetingDaysMask() != 0) {
+				earliest = Math.min(earliest, c.getStartMinute());
+				latest = Math.max(latest, c.getEndMinute());
+				days |= c.getMeetingDaysMask();
+			}
+			if (!isPreferred(c)) {
+				notPreferred++;
+			}
+		}
+
+		int gap = 0;
+		for (int day = 0; day < Activity.WEEK_DAYS.length(); day++) {
+			gap += gapMinutes(courses, 1 << day);
+		}
+
+		double cost = gapWeight * gap + campusDayWeight * Integer.bitCount(days)
+				+ instructorWeight * notPreferred;
+		if (latest >= 0) {
+			cost += earlyStartWeight * (MINUTES_PER_DAY - earliest) + lateEndWeight * latest;
+		}
+		return cost;
+	}
+
+	/**
+	 * Returns the idle minutes between the first and last course on a day
+	 * @param courses that do not conflict
+	 * @param dayBit bit of the day in a meeting days mask
+	 * @return span of the day minus the minutes taken by the courses
+	 */
+	static int gapMinutes(List<Course> courses, int dayBit) {
+		int first = MINUTES_PER_DAY;
+		int last = -1;
+		int busy = 0;
+		for (Course c : courses) {
+			if ((c.getMeetingDaysMask() & dayBit) != 0) {
+				first = Math.min(first, c.getStartMinute());
+				last = Math.max(last, c.getEndMinute());
+				busy += c.getEndMinute() - c.getStartMinute();
+			}
+		}
+		if (last < 0) {
+			return 0;
+		}
+		return last - first - busy;
+	}
+
+	/**
+	 * Checks that a weight is not negative, so adding a course never lowers a bound
+	 * @param weight to check
+	 * @return the weight
+	 * @throws IllegalArgumentException if the weight is negative
+	 */
+	private static double checkWeight(double weight) {
+		if (weight < 0 || Double.isNaN(weight)) {
+			throw new IllegalArgumentException("Invalid weight.");
+		}
+		return weight;
+	}
+}
@@ -0,0 +1,140 @@
+package edu.ncsu.csc216.wolf_scheduler.scheduler;
+
+import edu.ncsu.csc216.wolf_scheduler.course.Activity;
+
+/**
+ * Bitmap of the minutes of the week taken by the activities in a schedule, one bit for each
+ * of the 1440 minutes of each of the 7 days.  An activity takes every minute from its start
+ * minute through its end minute, so two activities that touch at one minute still overlap,
+ * matching {@link Activity#checkConflict(Activity)}.  Checking whether an activity fits is a
+ * few word-wise ANDs per meeting day no matter how many activities are in the schedule.
+ * 
+ * @author Riya Gunda
+ */
+class ScheduleOccupancy {
+	
+	/** Number of minutes in a day */
+	static final int MINUTES_PER_DAY = Activity.UPPER_HOUR * Activity.UPPER_MIN;
+	
+	/** Number of bits in the bitmap */
+	static final int MINUTES_PER_WEEK = MINUTES_PER_DAY * Activity.WEEK_DAYS.length();
+	
+	/** Bits of the bitmap, 158 longs for a whole week */
+	private long[] words;
+	
+	/**
+	 * Constructs an empty bitmap
+	 */
+	ScheduleOccupancy() {
+		words = new long[(MINUTES_PER_WEEK + 63) / 64];
+	}
+	
+	/**
+	 * Constructs a copy of another bitmap
+	 * @param other bitmap to copy
+	 */
+	ScheduleOccupancy(ScheduleOccupancy other) {
+		words = other.words.clone();
+	}
+	
+	/**
+	 * Marks the minutes taken by the activity
+	 * @param activity to add
+	 */
+	void add(Activity activity) {
+		update(activity, true);
+	}
+	
+	/**
+	 * Clears the minutes taken by the activity.  Activities in a schedule never overlap, so
+	 * no other activity loses its minutes.
+	 * @param activity to remove
+	 */
+	void remove(Activity activity) {
+		update(activity, false);
+	}
+	
+	/**
+	 * Returns true if none of the minutes the activity takes are taken yet.  Arranged
+	 * activities have no meeting days, so they always fit.
+	 * @param activity to check
+	 * @return true if the activity fits
+	 */
+	boolean fits(Activity activity) {
+		return fits(activity.getMeetingDaysMask(), activity.getStartMinute(), activity.getEndMinute());
+	}
+	
+	/**
+	 * Returns true if none of the minutes from start through end are taken on any of the days
+	 * in the mask
+	 * @param mask meeting days mask
+	 * @param start start minute
+	 * @param end end minute
+	 * @return true if the times fit
+	 */
+	boolean fits(int mask, int start, int end) {
+		for(int day = 0; mask != 0; day++, mask >>>= 1) {
+			if((mask & 1) != 0 && isTaken(day * MINUTES_PER_DAY + start, day * MINUTES_PER_DAY + end)) {
+				return false;
+			}
+		}
+		return true;
+	}
+	
+	/**
+	 * Sets or clears the minutes the activity takes on each of its meeting days
+	 * @param activity to update the minutes of
+	 * @param taken true to set the minutes, false to clear them
+	 */
+	private void update(Activity activity, boolean taken) {
+		int mask = activity.getMeetingDaysMask();
+		for(int day = 0; mask != 0; day++, mask >>>= 1) {
+			if((mask & 1) == 0) {
+				continue;
+			}
+			int from = day * MINUTES_PER_DAY + activity.getStartMinute();
+			int to = day * MINUTES_PER_DAY + activity.getEndMinute();
+			for(int w = from >>> 6; w <= to >>> 6; w++) {
+				long bits = rangeMask(w, from, to);
+				if(taken) {
+					words[w] |= bits;
+				} else {
+					words[w] &= ~bits;
+				}
+			}
+		}
+	}
+	
+	/**
+	 * Returns true if any minute from from through to is taken
+	 * @param from first bit to check
+	 * @param to last bit to check
+	 * @return true if any of the bits are set
+	 */
+	private boolean isTaken(int from, int to) {
+		for(int w = from >>> 6; w <= to >>> 6; w++) {
+			if((words[w] & rangeMask(w, from, to)) != 0) {
+				return true;
+			}
+		}
+		return false;
+	}
+	
+	/**
+	 * Returns the bits of word w that lie between from and to, inclusive
+	 * @param w index of the word
+	 * @param from first bit of the range
+	 * @param to last bit of the range
+	 * @return mask of the bits in the word that are in the range
+	 */
+	private static long rangeMask(int w, int from, int to) {
+		long bits = -1L;
+		if(w == from >>> 6) {
+			bits &= -1L << (from & 63);
+		}
+		if(w == to >>> 6) {
+			bits &= -1L >>> (63 - (to & 63));
+		}
+		return bits;
+	}
+}
@@ -0,0 +1,271 @@
+package edu.ncsu.csc216.wolf_scheduler.scheduler;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.PriorityQueue;
+
+import edu.ncsu.csc216.wolf_scheduler.course.Activity;
+import edu.ncsu.csc216.wolf_scheduler.course.Course;
+
+/**
+ * Finds the conflict free combinations of one section from each of several courses with the
+ * lowest cost for a {@link ScheduleObjective}, using branch and bound.  A partial combination is
+ * only extended while a lower bound on the cost of every schedule it can still become is below
+ * the cost of the worst of the best schedules found so far.  The bound never overestimates, so
+ * the schedules returned are the true best ones.
+ *
+ * @author Riya Gunda
+ */
+class ScheduleOptimizer {
+
+	/** Number of minutes in a day */
+	private static final int MINUTES_PER_DAY = Activity.UPPER_HOUR * Activity.UPPER_MIN;
+
+	/** Number of days in a week */
+	private static final int DAYS = Activity.WEEK_DAYS.length();
+
+	/** Orders candidates from the lowest cost to the highest */
+	private static final Comparator<Candidate> BY_COST = new Comparator<Candidate>() {
+		@Override
+		public int compare(Candidate a, Candidate b) {
+			return Double.compare(a.cost, b.cost);
+		}
+	};
+
+	/** Objective being minimized */
+	private final ScheduleObjective objective;
+
+	/** Sections of every course, ordered from the course with the fewest sections */
+	private final ArrayList<ArrayList<Course>> levels;
+
+	/** For each level, the latest start of its sections, or a full day if one is arranged */
+	private final int[] latestStart;
+
+	/** For each level, the earliest end of its sections, or -1 if one is arranged */
+	private final int[] earliestEnd;
+
+	/** For each level, the days every one of its sections meets on */
+	private final int[] sharedDays;
+
+	/** For each level, true if any of its sections is taught by a preferred instructor */
+	private final boolean[] anyPreferred;
+
+	/** For each level and day, the longest section meeting on that day */
+	private final int[][] longestOnDay;
+
+	/** Best schedules found so far, with the worst one at the head */
+	private PriorityQueue<Candidate> best;
+
+	/** Number of schedules to keep */
+	private int k;
+
+	/**
+	 * Constructs an optimizer for the sections of the given courses
+	 * @param courseSections every section of each wanted course
+	 * @param objective cost to minimize
+	 */
+	ScheduleOptimizer(ArrayList<ArrayList<Course>> courseSections, ScheduleObjective objective) {
+		this.objective = objective;
+		levels = new ArrayList<ArrayList<Course>>(courseSections);
+		Collections.sort(levels, new Comparator<ArrayList<Course>>() {
+			@Override
+			public int compare(ArrayList<Course> a, ArrayList<Course> b) {
+				return Integer.compare(a.size(), b.size());
+			}
+		});
+
+		int n = levels.size();
+		latestStart = new int[n];
+		earliestEnd = new int[n];
+		sharedDays = new int[n];
+		anyPreferred = new boolean[n];
+		longestOnDay = new int[n][DAYS];
+		for (int l = 0; l < n; l++) {
+			latestStart[l] = -1;
+			earliestEnd[l] = MINUTES_PER_DAY;
+			sharedDays[l] = -1;
+			for (Course c : levels.get(l)) {
+				int mask = c.getMeetingDaysMask();
+				if (mask == 0) {
+					latestStart[l] = MINUTES_PER_DAY;
+					earliestEnd[l] = -1;
+				} else {
+					latestStart[l] = Math.max(latestStart[l], c.getStartMinute());
+					earliestEnd[l] = Math.min(earliestEnd[l], c.getEndMinute());
+				}
+				sharedDays[l] &= mask;
+				anyPreferred[l] |= objective.isPreferred(c);
+				for (int day = 0; day < DAYS; day++) {
+					if ((mask & (1 << day)) != 0) {
+						longestOnDay[l][day] = Math.max(longestOnDay[l][day], c.getEndMinute() - c.getStartMinute());
+					}
+				}
+			}
+			if (levels.get(l).isEmpty()) {
+				sharedDays[l] = 0;
+			}
+		}
+	}
+
+	/**
+	 * Returns the k schedules with the lowest cost
+	 * @param count number of schedules to return
+	 * @return up to count schedules, from the lowest cost to the highest
+	 */
+	ArrayList<ArrayList<Course>> findBest(int count) {
+		k = count;
+		best = new PriorityQueue<Candidate>(Math.max(1, k), Collections.reverseOrder(BY_COST));
+		if (k > 0) {
+			search(new ArrayList<Course>(), 0);
+		}
+
+		ArrayList<Candidate> sorted = new ArrayList<Candidate>(best);
+		Collections.sort(sorted, BY_COST);
+		ArrayList<ArrayList<Course>> schedules = new ArrayList<ArrayList<Course>>();
+		for (Candidate c : sorted) {
+			schedules.add(c.courses);
+		}
+		return schedules;
+	}
+
+	/**
+	 * Extends the partial schedule with every section of the next level that fits, trying the
+	 * sections with the lowest bound first
+	 * @param chosen sections chosen for the levels above
+	 * @param level next level to choose a section for
+	 */
+	private void search(ArrayList<Course> chosen, int level) {
+		if (level == levels.size()) {
+			double cost = objective.cost(chosen);
+			if (best.size() < k) {
+				best.add(new Candidate(new ArrayList<Course>(chosen), cost));
+			} else if (cost < best.peek().cost) {
+				best.poll();
+				best.add(new Candidate(new ArrayList<Course>(chosen), cost));
+			}
+			return;
+		}
+
+		ArrayList<Candidate> options = new ArrayList<Candidate>();
+		for (Course section : levels.get(level)) {
+			if (fits(chosen, section)) {
+				chosen.add(section);
+				options.add(new Candidate(section, lowerBound(chosen, level + 1)));
+				chosen.remove(chosen.size() - 1);
+			}
+		}
+		Collections.sort(options, BY_COST);
+
+		for (Candidate option : options) {
+			if (best.size() == k && option.cost >= best.peek().cost) {
+				//Every later option has an even higher bound
+				return;
+			}
+			chosen.add(option.section);
+			search(chosen, level + 1);
+			chosen.remove(chosen.size() - 1);
+		}
+	}
+
+	/**
+	 * Returns a cost no higher than that of any complete schedule that starts with the chosen
+	 * sections.  Every remaining level adds one of its sections, so the bound assumes each one
+	 * adds as little to every term as any of its sections could.
+	 * @param chosen sections chosen so far
+	 * @param from first level without a section
+	 * @return lower bound on the cost
+	 */
+	private double lowerBound(ArrayList<Course> chosen, int from) {
+		int earliest = MINUTES_PER_DAY;
+		int latest = -1;
+		int days = 0;
+		int notPreferred = 0;
+		for (Course c : chosen) {
+			if (c.getMeetingDaysMask() != 0) {
+				earliest = Math.min(earliest, c.getStartMinute());
+				latest = Math.max(latest, c.getEndMinute());
+				days |= c.getMeetingDaysMask();
+			}
+			if (!objective.isPreferred(c)) {
+				notPreferred++;
+			}
+		}
+		for (int l = from; l < levels.size(); l++) {
+			earliest = Math.min(earliest, latestStart[l]);
+			latest = Math.max(latest, earliestEnd[l]);
+			days |= sharedDays[l];
+			if (!anyPreferred[l]) {
+				notPreferred++;
+			}
+		}
+
+		//A new section can fill at most its own length of an existing gap
+		int gap = 0;
+		for (int day = 0; day < DAYS; day++) {
+			int dayGap = ScheduleObjective.gapMinutes(chosen, 1 << day);
+			for (int l = from; l < levels.size() && dayGap > 0; l++) {
+				dayGap -= longestOnDay[l][day];
+			}
+			gap += Math.max(0, dayGap);
+		}
+
+		double bound = objective.getGapWeight() * gap + objective.getCampusDayWeight() * Integer.bitCount(days)
+				+ objective.getInstructorWeight() * notPreferred;
+		if (latest >= 0) {
+			bound += objective.getEarlyStartWeight() * (MINUTES_PER_DAY - earliest)
+					+ objective.getLateEndWeight() * latest;
+		}
+		return bound;
+	}
+
+	/**
+	 * Returns true if the section does not conflict with any chosen section
+	 * @param chosen sections chosen so far
+	 * @param section to check
+	 * @return true if the section fits
+	 */
+	private static boolean fits(ArrayList<Course> chosen, Course section) {
+		for (Course c : chosen) {
+			if (c.conflictsWith(section)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * A complete schedule with its cost, or a section with the bound of choosing it
+	 */
+	private static class Candidate {
+
+		/** Courses in a complete schedule */
+		private ArrayList<Course> courses;
+
+		/** Section being considered */
+		private Course section;
+
+		/** Cost of the schedule or bound of the section */
+		private double cost;
+
+		/**
+		 * Constructs a candidate for a complete schedule
+		 * @param courses in the schedule
+		 * @param cost of the schedule
+		 */
+		Candidate(ArrayList<Course> courses, double cost) {
+			this.courses = courses;
+			this.cost = cost;
+		}
+
+		/**
+		 * Constructs a candidate for a section
+		 * @param section being considered
+		 * @param bound lower bound of choosing the section
+		 */
+		Candidate(Course section, double bound) {
+			this.section = section;
+			this.cost = bound;
+		}
+	}
+}
@@ -0,0 +1,327 @@
+package edu.ncsu.csc216.wolf_scheduler.scheduler;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+
+import edu.ncsu.csc216.wolf_scheduler.course.Course;
+
+/**
+ * Searches for every combination of one section from each of several courses where no two
+ * sections conflict, using the same rules as {@link Course#conflictsWith}.  The courses are
+ * searched with the fewest sections first, and a partial combination is dropped as soon as it
+ * leaves a later course with no section that fits.
+ *
+ * The search is a {@link Spliterator}, so it runs lazily one combination at a time, and a
+ * parallel stream over it splits the untried sections of the shallowest level with choices
+ * left between fork/join tasks.
+ *
+ * A search with many courses can find millions of combinations, so a combination is not
+ * copied into a list of its own.  It is a read-only list made of its last section and the
+ * combination of the sections chosen above it, which is shared with every other combination
+ * starting with the same sections.  Finding a combination allocates one small object.
+ *
+ * @author Riya Gunda
+ */
+class ScheduleSearch implements Spliterator<List<Course>> {
+
+	/** Sections of every course, numbered in course order */
+	private final Course[] sections;
+
+	/** Number of the first section of each course, with one more entry for the end */
+	private final int[] offsets;
+
+	/** For every section, a bitset of the sections it conflicts with */
+	private final long[][] conflicts;
+
+	/** Bitset of the sections still allowed at each level given the sections chosen above it */
+	private final long[][] allowed;
+
+	/** Next section to try at each level */
+	private final int[] next;
+
+	/** Section just after the last one to try at each level */
+	private final int[] hi;
+
+	/** Section chosen at each level */
+	private final int[] chosen;
+
+	/** Combination of the sections chosen down to each level above the one being searched */
+	private final Combination[] prefixes;
+
+	/** Shallowest level this search owns, every level above it is fixed */
+	private final int base;
+
+	/** Level being searched, less than base once the search is done */
+	private int level;
+
+	/**
+	 * Constructs a search over the sections of the given courses
+	 * @param courseSections every section of each wanted course
+	 */
+	ScheduleSearch(ArrayList<ArrayList<Course>> courseSections) {
+		ArrayList<ArrayList<Course>> ordered = new ArrayList<ArrayList<Course>>(courseSections);
+		Collections.sort(ordered, new Comparator<ArrayList<Course>>() {
+			@Override
+			public int compare(ArrayList<Course> a, ArrayList<Course> b) {
+				return Integer.compare(a.size(), b.size());
+			}
+		});
+
+		int levels = ordered.size();
+		offsets = new int[levels + 1];
+		ArrayList<Course> all = new ArrayList<Course>();
+		for (int l = 0; l < levels; l++) {
+			offsets[l] = all.size();
+			all.addAll(ordered.get(l));
+		}
+		offsets[levels] = all.size();
+		sections = all.toArray(new Course[all.size()]);
+
+		int words = (sections.length + 63) / 64;
+		conflicts = new long[sections.length][words];
+		for (int i = 0; i < sections.length; i++) {
+			for (int j = i + 1; j < sections.length; j++) {
+				if (sections[i].conflictsWith(sections[j])) {
+					conflicts[i][j >>> 6] |= 1L << j;
+					conflicts[j][i >>> 6] |= 1L << i;
+				}
+			}
+		}
+
+		allowed = new long[levels + 1][words];
+		for (int i = 0; i < sections.length; i++) {
+			allowed[0][i >>> 6] |= 1L << i;
+		}
+		next = new int[levels];
+		hi = new int[levels];
+		chosen = new int[levels];
+		prefixes = new Combination[levels];
+		base = 0;
+		level = levels == 0 || !everyLevelHasSection(allowed[0], 0) ? -1 : 0;
+		if (level == 0) {
+			next[0] = offsets[0];
+			hi[0] = offsets[1];
+		}
+	}
+
+	/**
+	 * Constructs a search that owns part of a level of another search
+	 * @param parent search being split
+	 * @param splitLevel level being split
+	 * @param from first section of the level this search owns
+	 */
+	private ScheduleSearch(ScheduleSearch parent, int splitLevel, int from) {
+		sections = parent.sections;
+		offsets = parent.offsets;
+		conflicts = parent.conflicts;
+		allowed = new long[parent.allowed.length][];
+		for (int l = 0; l < allowed.length; l++) {
+			allowed[l] = parent.allowed[l].clone();
+		}
+		next = parent.next.clone();
+		hi = parent.hi.clone();
+		chosen = parent.chosen.clone();
+		prefixes = parent.prefixes.clone();
+		base = splitLevel;
+		level = splitLevel;
+		next[splitLevel] = from;
+	}
+
+	/**
+	 * Finds the next conflict free combination and gives it to the action
+	 * @param action to give the combination to
+	 * @return false if there are no more combinations
+	 */
+	@Override
+	public boolean tryAdvance(Consumer<? super List<Course>> action) {
+		int levels = chosen.length;
+		while (level >= base) {
+			int id = nextAllowed(allowed[level], next[level], hi[level]);
+			if (id < 0) {
+				level--;
+				continue;
+			}
+			next[level] = id + 1;
+			chosen[level] = id;
+
+			if (level == levels - 1) {
+				action.accept(new Combination(level == 0 ? null : prefixes[level - 1], sections[id]));
+				return true;
+			}
+
+			long[] remaining = allowed[level + 1];
+			long[] current = allowed[level];
+			long[] conflicting = conflicts[id];
+			for (int w = 0; w < remaining.length; w++) {
+				remaining[w] = current[w] & ~conflicting[w];
+			}
+			if (everyLevelHasSection(remaining, level + 1)) {
+				prefixes[level] = new Combination(level == 0 ? null : prefixes[level - 1], sections[id]);
+				level++;
+				next[level] = offsets[level];
+				hi[level] = offsets[level + 1];
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Gives the untried second half of the shallowest level that has at least two sections
+	 * left to a new search
+	 * @return search over the split off sections, or null if nothing can be split
+	 */
+	@Override
+	public Spliterator<List<Course>> trySplit() {
+		for (int l = base; l <= level; l++) {
+			int count = 0;
+			for (int id = nextAllowed(allowed[l], next[l], hi[l]); id >= 0;
+					id = nextAllowed(allowed[l], id + 1, hi[l])) {
+				count++;
+			}
+			if (count < 2) {
+				continue;
+			}
+
+			int mid = nextAllowed(allowed[l], next[l], hi[l]);
+			for (int i = 0; i < count / 2; i++) {
+				mid = nextAllowed(allowed[l], mid + 1, hi[l]);
+			}
+			ScheduleSearch split = new ScheduleSearch(this, l, mid);
+			hi[l] = mid;
+			return split;
+		}
+		return null;
+	}
+
+	/**
+	 * Returns an upper bound on the number of combinations left: for every level the search
+	 * is on, the untried sections of the level times the sections of every level below it.
+	 * Splitting a level halves its part of the bound, so a parallel stream stops splitting
+	 * once the parts are small enough for its threads, rather than splitting down to single
+	 * sections and then copying many small lists of results into one.
+	 * @return bound on the combinations left, Long.MAX_VALUE if it overflows
+	 */
+	@Override
+	public long estimateSize() {
+		long estimate = 0;
+		long below = 1;
+		for (int l = chosen.length - 1; l >= base; l--) {
+			if (l <= level) {
+				long untried = 0;
+				for (int id = nextAllowed(allowed[l], next[l], hi[l]); id >= 0;
+						id = nextAllowed(allowed[l], id + 1, hi[l])) {
+					untried++;
+				}
+				estimate += untried * below;
+			}
+			below *= offsets[l + 1] - offsets[l];
+			if (estimate < 0 || below > Integer.MAX_VALUE) {
+				return Long.MAX_VALUE;
+			}
+		}
+		return estimate;
+	}
+
+	/**
+	 * Returns the characteristics of the search.  Combinations are never repeated or null,
+	 * but splitting hands out later sections first, so the order is not kept.
+	 * @return characteristics of the search
+	 */
+	@Override
+	public int characteristics() {
+		return DISTINCT | NONNULL | IMMUTABLE;
+	}
+
+	/**
+	 * Returns true if every level from the given one down still has an allowed section
+	 * @param bits sections allowed
+	 * @param from first level to check
+	 * @return true if no later course is left without a section
+	 */
+	private boolean everyLevelHasSection(long[] bits, int from) {
+		for (int l = from; l < chosen.length; l++) {
+			if (nextAllowed(bits, offsets[l], offsets[l + 1]) < 0) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Returns the first allowed section from start up to end
+	 * @param bits sections allowed
+	 * @param start first section to check
+	 * @param end section just after the last one to check
+	 * @return the first allowed section, or -1 if there is none
+	 */
+	private static int nextAllowed(long[] bits, int start, int end) {
+		while (start < end) {
+			long word = bits[start >>> 6] & (-1L << (start & 63));
+			if (word != 0) {
+				int id = ((start >>> 6) << 6) + Long.numberOfTrailingZeros(word);
+				return id < end ? id : -1;
+			}
+			start = ((start >>> 6) + 1) << 6;
+		}
+		return -1;
+	}
+
+	/**
+	 * Read-only list of the sections of a combination, made of its last section and the
+	 * combination of the sections before it
+	 */
+	private static final class Combination extends AbstractList<Course> {
+
+		/** Combination of the sections before the last one, or null if there are none */
+		private final Combination prefix;
+
+		/** Last section of the combination */
+		private final Course last;
+
+		/** Number of sections in the combination */
+		private final int size;
+
+		/**
+		 * Constructs the combination of a prefix followed by one more section
+		 * @param prefix sections before the last one, or null if there are none
+		 * @param last section of the combination
+		 */
+		Combination(Combination prefix, Course last) {
+			this.prefix = prefix;
+			this.last = last;
+			this.size = prefix == null ? 1 : prefix.size + 1;
+		}
+
+		/**
+		 * Returns the section at an index of the combination
+		 * @param index of the section
+		 * @return the section
+		 * @throws IndexOutOfBoundsException if the index is out of range
+		 */
+		@Override
+		public Course get(int index) {
+			if (index < 0 || index >= size) {
+				throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+			}
+			Combination combination = this;
+			for (int i = size - 1; i > index; i--) {
+				combination = combination.prefix;
+			}
+			return combination.last;
+		}
+
+		/**
+		 * Returns the number of sections in the combination
+		 * @return one section per course
+		 */
+		@Override
+		public int size() {
+			return size;
+		}
+	}
+}
@@ -0,0 +1,102 @@
+package edu.ncsu.csc216.wolf_scheduler.scheduler;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import edu.ncsu.csc216.wolf_scheduler.course.Activity;
+
+/**
+ * Activities in a schedule at one moment, together with the conflict index and occupancy
+ * bitmap built from them.  A snapshot never changes once built.  Adding or removing an
+ * activity builds a new snapshot from copies of the old one's parts, which is cheap since a
+ * schedule only holds a few activities, so readers can use a snapshot without a lock while
+ * the schedule changes.
+ *
+ * @author Riya Gunda
+ */
+final class ScheduleSnapshot {
+
+	/** Snapshot of an empty schedule */
+	static final ScheduleSnapshot EMPTY = new ScheduleSnapshot(new Activity[0],
+			new ScheduleConflictIndex(), new ScheduleOccupancy());
+
+	/** Activities in schedule order */
+	private final List<Activity> activities;
+
+	/** Index of the activities by day and time, used to find conflicts */
+	private final ScheduleConflictIndex conflictIndex;
+
+	/** Minutes of the week taken by the activities */
+	private final ScheduleOccupancy occupancy;
+
+	/**
+	 * Constructs a snapshot from parts that are not changed after this
+	 * @param activities in schedule order
+	 * @param conflictIndex of the activities
+	 * @param occupancy of the activities
+	 */
+	private ScheduleSnapshot(Activity[] activities, ScheduleConflictIndex conflictIndex,
+			ScheduleOccupancy occupancy) {
+		this.activities = Collections.unmodifiableList(Arrays.asList(activities));
+		this.conflictIndex = conflictIndex;
+		this.occupancy = occupancy;
+	}
+
+	/**
+	 * Returns a snapshot with the activity added to the end of the schedule.  The activity
+	 * must not conflict with any activity in this snapshot.
+	 * @param activity to add
+	 * @return the new snapshot
+	 */
+	ScheduleSnapshot withAdded(Activity activity) {
+		Activity[] added = activities.toArray(new Activity[activities.size() + 1]);
+		added[activities.size()] = activity;
+		ScheduleConflictIndex index = new ScheduleConflictIndex(conflictIndex);
+		index.add(activity);
+		ScheduleOccupancy taken = new ScheduleOccupancy(occupancy);
+		taken.add(activity);
+		return new ScheduleSnapshot(added, index, taken);
+	}
+
+	/**
+	 * Returns a snapshot without the activity at the given index
+	 * @param idx index of the activity to remove
+	 * @return the new snapshot
+	 */
+	ScheduleSnapshot withRemoved(int idx) {
+		Activity removed = activities.get(idx);
+		ArrayList<Activity> rest = new ArrayList<Activity>(activities);
+		rest.remove(idx);
+		ScheduleConflictIndex index = new ScheduleConflictIndex(conflictIndex);
+		index.remove(removed);
+		ScheduleOccupancy taken = new ScheduleOccupancy(occupancy);
+		taken.remove(removed);
+		return new ScheduleSnapshot(rest.toArray(new Activity[rest.size()]), index, taken);
+	}
+
+	/**
+	 * Returns the activities in schedule order
+	 * @return unmodifiable list of the activities
+	 */
+	List<Activity> getActivities() {
+		return activities;
+	}
+
+	/**
+	 * Returns the conflict index of the activities, which must not be changed
+	 * @return the conflict index
+	 */
+	ScheduleConflictIndex getConflictIndex() {
+		return conflictIndex;
+	}
+
+	/**
+	 * Returns the occupancy bitmap of the activities, which must not be changed
+	 * @return the occupancy bitmap
+	 */
+	ScheduleOccupancy getOccupancy() {
+		return occupancy;
+	}
+}
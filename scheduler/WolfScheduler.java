@@ -3,18 +3,29 @@
  */
 package edu.ncsu.csc216.wolf_scheduler.scheduler;
 import edu.ncsu.csc216.wolf_scheduler.course.Activity;
-import edu.ncsu.csc216.wolf_scheduler.course.ConflictException;
 import edu.ncsu.csc216.wolf_scheduler.course.Event;
 
 
-import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 import edu.ncsu.csc216.wolf_scheduler.course.Course;
 import edu.ncsu.csc216.wolf_scheduler.io.ActivityRecordIO;
-import edu.ncsu.csc216.wolf_scheduler.io.CourseRecordIO;
+import edu.ncsu.csc216.wolf_scheduler.io.CourseRecordStats;
 /**
  * This class reads in and stores as a list of all the Course records.
+ * 
+ * A scheduler can be used from several threads at once.  The schedule is kept as a snapshot
+ * that is replaced on every change, so reads never lock and always see one consistent
+ * schedule.  Changes to the schedule and title are made one at a time under a lock held by
+ * each scheduler, and listeners are told about them in the order they were made.
  * @author Riya Gunda 
  */
 public class WolfScheduler {
@@ -22,17 +33,34 @@ public class WolfScheduler {
 	/**
 	 * Field for the title of a students schedule
 	 */
-	public String title;
+	private volatile String title;
+	
+	/**
+	 * Activities in the schedule with their conflict index and occupancy, replaced on every
+	 * change so it can be read without a lock
+	 */
+	private volatile ScheduleSnapshot schedule;
+	
+	/**
+	 * Lock held while the schedule or title is changed, so changes are made one at a time
+	 */
+	private final Object scheduleLock = new Object();
 	
 	/**
-	 * Field for an array list that holds the catalog of courses available
+	 * Source of the catalog of courses available, which may be shared with other sessions
 	 */
-	public ArrayList<Course> catalog;
+	private final CatalogSource catalogSource;
 	
 	/**
-	 * Field for an array list that holds the courses in the schedules
+	 * Seat limits and waitlists of the sections, which may be shared with other sessions
 	 */
-	public ArrayList<Activity> schedule;
+	private final EnrollmentRegistry enrollment;
+	
+	/**
+	 * Listeners told about every change to the schedule
+	 */
+	private CopyOnWriteArrayList<ScheduleListener> scheduleListeners = 
+			new CopyOnWriteArrayList<ScheduleListener>();
 	
 	/**
 	 * Constructor that sets the value for title and catalog
@@ -40,39 +68,347 @@ public class WolfScheduler {
 	 * @throws IllegalArgumentException if the file name is invalid
 	 */
 	public WolfScheduler(String validTestFile) {
-		schedule = new ArrayList<Activity>();
+		this(loadCatalog(validTestFile));
+	}
+	
+	/**
+	 * Constructor for a session on a catalog shared with other sessions.  Only the schedule
+	 * and title belong to the session, so creating one does not copy or index any courses.
+	 * @param catalog catalog of courses available
+	 * @throws IllegalArgumentException if the catalog is null
+	 */
+	public WolfScheduler(CourseCatalog catalog) {
+		this(new CatalogSource(catalog));
+	}
+	
+	/**
+	 * Constructor for a session that follows the catalog published by a source, so it
+	 * switches to a new catalog as soon as one is published.  Each call reads the catalog
+	 * from the source once, so it never waits for a reload and sees one version throughout.
+	 * @param catalogSource source of the catalog of courses available
+	 * @throws IllegalArgumentException if the source is null
+	 */
+	public WolfScheduler(CatalogSource catalogSource) {
+		this(catalogSource, new EnrollmentRegistry());
+	}
+	
+	/**
+	 * Constructor for a session that follows the catalog published by a source and enrolls
+	 * in sections whose seats are shared with every other session using the same registry
+	 * @param catalogSource source of the catalog of courses available
+	 * @param enrollment seat limits and waitlists of the sections
+	 * @throws IllegalArgumentException if the source or registry is null
+	 */
+	public WolfScheduler(CatalogSource catalogSource, EnrollmentRegistry enrollment) {
+		if(catalogSource == null) {
+			throw new IllegalArgumentException("Invalid catalog.");
+		}
+		if(enrollment == null) {
+			throw new IllegalArgumentException("Invalid enrollment registry.");
+		}
+		schedule = ScheduleSnapshot.EMPTY;
 		this.title = "My Schedule";
-		
+		this.catalogSource = catalogSource;
+		this.enrollment = enrollment;
+	}
+	
+	/**
+	 * Constructor for a scheduler with an empty catalog, which can be filled in batches with
+	 * {@link #addCoursesToCatalog(List)} while the catalog file is still being read.  The
+	 * catalog stats stay empty until the reader's counts are set with
+	 * {@link #setCatalogStats(CourseRecordStats)}.
+	 */
+	public WolfScheduler() {
+		this(new CourseCatalog(new ArrayList<Course>(), null));
+	}
+	
+	/**
+	 * Loads a catalog for the file constructor
+	 * @param fileName name of the input file
+	 * @return the catalog
+	 * @throws IllegalArgumentException if the file cannot be read
+	 */
+	private static CourseCatalog loadCatalog(String fileName) {
 		try {
-			catalog = CourseRecordIO.readCourseRecords(validTestFile);
-		} catch (FileNotFoundException e) {
+			return CourseCatalog.load(fileName);
+		} catch (IOException e) {
 			throw new IllegalArgumentException("File not found.");
 		}
 	}
 	
+	/**
+	 * Adds courses to the end of this session's catalog by publishing a larger catalog to the
+	 * session's source.  The catalog is never changed in place, so sessions that were given
+	 * the same catalog without the source keep the catalog they had.  A course with the same
+	 * name and section as one already in the catalog is skipped, so the first one loaded wins.
+	 * @param courses to add, in catalog order
+	 */
+	public void addCoursesToCatalog(List<Course> courses) {
+		catalogSource.addCourses(courses);
+	}
+	
+	/**
+	 * Returns the catalog of courses currently available to this session
+	 * @return the catalog
+	 */
+	public CourseCatalog getCatalog() {
+		return catalogSource.getCatalog();
+	}
+	
+	/**
+	 * Returns the version of the catalog this session is currently reading
+	 * @return the catalog version
+	 */
+	public long getCatalogVersion() {
+		return catalogSource.getVersion();
+	}
+	
+	/**
+	 * Returns the counts of lines read, invalid lines and duplicates dropped when the
+	 * catalog was loaded
+	 * @return stats for the catalog load
+	 */
+	public CourseRecordStats getCatalogStats() {
+		return getCatalog().getStats();
+	}
+	
+	/**
+	 * Sets the counts of lines read, invalid lines and duplicates dropped for a catalog that
+	 * was filled with {@link #addCoursesToCatalog(List)}, once the file is read
+	 * @param stats counts for the catalog load
+	 */
+	public void setCatalogStats(CourseRecordStats stats) {
+		catalogSource.setStats(stats);
+	}
+	
 	/**
 	 * Creates an array of the course's names, sections, and titles
 	 * @return a 2D array of available courses to select from
 	 */
 	public String[][] getCourseCatalog() {
-		String[][] tableArr = new String[catalog.size()][3];
+		CourseCatalog courses = getCatalog();
+		String[][] tableArr = new String[courses.size()][3];
 		
-		for (int i = 0; i < catalog.size(); i++) {
-            Course c = catalog.get(i);
+		for (int i = 0; i < courses.size(); i++) {
+            Course c = courses.get(i);
             tableArr[i] = c.getShortDisplayArray();
         }
         return tableArr;
 	}
 
+	/**
+	 * Returns the number of courses in the catalog
+	 * @return number of rows in the catalog
+	 */
+	public int getCatalogSize() {
+		return getCatalog().size();
+	}
+	
+	/**
+	 * Returns one cell of the row {@link #getCourseCatalog()} would build for a course, without
+	 * copying the catalog
+	 * @param row index of the course in the catalog
+	 * @param col 0 for the name, 1 for the section, 2 for the title, 3 for the meeting string
+	 * @return value of the cell
+	 * @throws IndexOutOfBoundsException if the row or column is out of range
+	 */
+	public String getCatalogValueAt(int row, int col) {
+		Course c = getCatalog().get(row);
+		switch (col) {
+			case 0:
+				return c.getName();
+			case 1:
+				return c.getSection();
+			case 2:
+				return c.getTitle();
+			case 3:
+				return c.getMeetingString();
+			default:
+				throw new IndexOutOfBoundsException("Column: " + col);
+		}
+	}
+
+	/**
+	 * Returns the catalog rows of the courses whose name or instructor ID starts with the query
+	 * or whose title contains it, ignoring case.  The search reads the catalog once and only
+	 * uses its search index, so it can run on another thread while courses are added to the
+	 * catalog.
+	 * @param query text typed by the user
+	 * @return matching rows in catalog order, every row if the query is blank
+	 * @throws IllegalArgumentException if the query is null
+	 */
+	public int[] searchCatalog(String query) {
+		if(query == null) {
+			throw new IllegalArgumentException("Invalid search.");
+		}
+		return getCatalog().search(query);
+	}
+	
+	/**
+	 * Returns the catalog rows of the courses meeting on every given day that start between
+	 * the given times, such as the courses meeting on TH that start between 0830 and 1100
+	 * @param meetingDays days the courses must all meet on, null or empty for any day
+	 * @param earliestStart earliest start time in 24 hour format
+	 * @param latestStart latest start time in 24 hour format
+	 * @return matching rows in catalog order, never including arranged courses
+	 * @throws IllegalArgumentException if a day is not a day of the week, a time is not a
+	 * valid time, or the earliest start is after the latest start
+	 */
+	public int[] getCatalogRowsStartingBetween(String meetingDays, int earliestStart, int latestStart) {
+		int from = toMinute(earliestStart);
+		int to = toMinute(latestStart);
+		if(from > to) {
+			throw new IllegalArgumentException("Invalid meeting days and times.");
+		}
+		return getCatalog().getTimeIndex().startingBetween(toDayMask(meetingDays), from, to);
+	}
+	
+	/**
+	 * Returns the catalog rows of the courses meeting on every given day that end before the
+	 * given time, such as the courses that end before 1500 on any day
+	 * @param meetingDays days the courses must all meet on, null or empty for any day
+	 * @param endTime time the courses must end before in 24 hour format
+	 * @return matching rows in catalog order, never including arranged courses
+	 * @throws IllegalArgumentException if a day is not a day of the week or the time is not
+	 * a valid time
+	 */
+	public int[] getCatalogRowsEndingBefore(String meetingDays, int endTime) {
+		int before = toMinute(endTime);
+		return getCatalog().getTimeIndex().endingBefore(toDayMask(meetingDays), before);
+	}
+	
+	/**
+	 * Returns the catalog rows of the courses matching a query built from conditions on the
+	 * credits, name, instructor and meeting days of the courses.  The bitmaps the query is
+	 * evaluated on are built on the first query after courses are added to the catalog.
+	 * @param query to run
+	 * @return matching rows in catalog order
+	 * @throws IllegalArgumentException if the query is null
+	 */
+	public int[] queryCatalog(CatalogQuery query) {
+		if(query == null) {
+			throw new IllegalArgumentException("Invalid catalog query.");
+		}
+		BitSet matches = query.evaluate(getCatalog().getBitmaps());
+		int[] rows = new int[matches.cardinality()];
+		int count = 0;
+		for(int row = matches.nextSetBit(0); row >= 0; row = matches.nextSetBit(row + 1)) {
+			rows[count++] = row;
+		}
+		return rows;
+	}
+	
+	/**
+	 * Converts meeting days to a meeting days mask
+	 * @param meetingDays days of the week, null or empty for none
+	 * @return mask with the bit of every day set
+	 * @throws IllegalArgumentException if a character is not a day of the week
+	 */
+	static int toDayMask(String meetingDays) {
+		int mask = 0;
+		if(meetingDays == null) {
+			return mask;
+		}
+		for(int i = 0; i < meetingDays.length(); i++) {
+			int bit = Activity.dayBit(meetingDays.charAt(i));
+			if(bit == 0) {
+				throw new IllegalArgumentException("Invalid meeting days and times.");
+			}
+			mask |= bit;
+		}
+		return mask;
+	}
+	
+	/**
+	 * Converts a time in 24 hour format to minutes since midnight
+	 * @param time in 24 hour format
+	 * @return minutes since midnight
+	 * @throws IllegalArgumentException if the time is not between 0000 and 2359 or its
+	 * minutes are 60 or more
+	 */
+	private static int toMinute(int time) {
+		if(time < 0 || time / 100 >= Activity.UPPER_HOUR || time % 100 >= Activity.UPPER_MIN) {
+			throw new IllegalArgumentException("Invalid meeting days and times.");
+		}
+		return time / 100 * Activity.UPPER_MIN + time % 100;
+	}
+	
+	/**
+	 * Returns every course in the catalog that could be added to the schedule: it does not
+	 * conflict with any activity in the schedule and no section of it is in the schedule yet.
+	 * The courses are checked against the schedule's occupied minutes using the days and times
+	 * saved for every course when the catalog was loaded.
+	 * @return courses that fit in the schedule, in catalog order
+	 */
+	public ArrayList<Course> getFittingCourses() {
+		CourseCatalog courses = getCatalog();
+		int[] rows = getFittingCatalogRows(courses);
+		ArrayList<Course> fitting = new ArrayList<Course>(rows.length);
+		for(int row : rows) {
+			fitting.add(courses.get(row));
+		}
+		return fitting;
+	}
+	
+	/**
+	 * Returns the catalog rows of the courses from {@link #getFittingCourses()}, so a view of
+	 * the fitting courses can read their cells with {@link #getCatalogValueAt(int, int)}
+	 * @return rows of the courses that fit in the schedule, in catalog order
+	 */
+	public int[] getFittingCatalogRows() {
+		return getFittingCatalogRows(getCatalog());
+	}
+	
+	/**
+	 * Returns the rows of the courses in the given catalog that fit in the schedule
+	 * @param courses catalog to check
+	 * @return rows of the courses that fit in the schedule, in catalog order
+	 */
+	private int[] getFittingCatalogRows(CourseCatalog courses) {
+		ScheduleSnapshot current = schedule;
+		ScheduleOccupancy occupancy = current.getOccupancy();
+		HashSet<String> scheduledNames = new HashSet<String>();
+		for(Activity a : current.getActivities()) {
+			if(a instanceof Course) {
+				scheduledNames.add(((Course) a).getName());
+			}
+		}
+		
+		int[] rows = new int[courses.size()];
+		int count = 0;
+		for(int i = 0; i < courses.size(); i++) {
+			if(courses.fits(i, occupancy) && !scheduledNames.contains(courses.get(i).getName())) {
+				rows[count++] = i;
+			}
+		}
+		return Arrays.copyOf(rows, count);
+	}
+	
+	/**
+	 * Creates an array of the names, sections, titles, and meeting strings of the courses in
+	 * the catalog that fit in the schedule
+	 * @return a 2D array of the courses from {@link #getFittingCourses()}
+	 */
+	public String[][] getFittingCourseCatalog() {
+		ArrayList<Course> fitting = getFittingCourses();
+		String[][] tableArr = new String[fitting.size()][4];
+		
+		for (int i = 0; i < fitting.size(); i++) {
+            tableArr[i] = fitting.get(i).getShortDisplayArray();
+        }
+        return tableArr;
+	}
+
 	/**
 	 * Creates an array of the course's names, sections, and titles in the schedule
 	 * @return a 2D array of courses in the schedule
 	 */
 	public String[][] getScheduledActivities() {
-		String[][] tableArr = new String[schedule.size()][4];
+		List<Activity> activities = schedule.getActivities();
+		String[][] tableArr = new String[activities.size()][4];
 		
-		for (int i = 0; i < schedule.size(); i++) {
-			Activity c = schedule.get(i);
+		for (int i = 0; i < activities.size(); i++) {
+			Activity c = activities.get(i);
             tableArr[i] = c.getShortDisplayArray();
         }
         return tableArr;
@@ -84,96 +420,271 @@ public class WolfScheduler {
 	 * @return array of courses in the schedule
 	 */
 	public String[][] getFullScheduledActivities() {
-		String[][] tableArr = new String[schedule.size()][7];
+		List<Activity> activities = schedule.getActivities();
+		String[][] tableArr = new String[activities.size()][7];
 		
-		for(int i = 0; i < schedule.size(); i++) {
-			Activity c = schedule.get(i);
+		for(int i = 0; i < activities.size(); i++) {
+			Activity c = activities.get(i);
             tableArr[i] = c.getLongDisplayArray();
 		}
 		return tableArr;
 	}
 
 	/**
-	 * Returns a specified course if it is in the catalog
+	 * Returns the activities in the schedule at this moment.  The list does not change when
+	 * the schedule changes later.
+	 * @return unmodifiable list of the activities in schedule order
+	 */
+	public List<Activity> getSchedule() {
+		return schedule.getActivities();
+	}
+
+	/**
+	 * Returns a specified course if it is in the catalog.  The course is shared by every
+	 * session reading the catalog, so it is frozen and its setters throw.
 	 * @param name of the course
 	 * @param section of the course
 	 * @return course object
 	 */
 	public Course getCourseFromCatalog(String name, String section) {
-		for(int i = 0; i < catalog.size(); i++) {
-			if(catalog.get(i).getName().equals(name) && catalog.get(i).getSection().equals(section)) {
-				return catalog.get(i);
-			}
-		}
-		return null;
+		return getCatalog().getCourse(name, section);
+	}
+	
+	/**
+	 * Returns every section of the course with the given name in catalog order
+	 * @param name of the course
+	 * @return list of the course's sections, empty if the course is not in the catalog
+	 */
+	public ArrayList<Course> getCourseSectionsFromCatalog(String name) {
+		return new ArrayList<Course>(getCatalog().getSections(name));
 	}
 
 	/**
-	 * Adds new course to the schedule if it has not been added already and does not cause conflicts
-	 * with any courses in the schedule
+	 * Generates every combination of one section of each of the given courses where no two
+	 * sections conflict.  Combinations are found lazily as the stream is read, and the search
+	 * is split between fork/join tasks.  The order of the combinations is not fixed.
+	 * @param courseNames names of the wanted courses, repeated names are only used once
+	 * @param maxResults largest number of combinations to produce
+	 * @return stream of conflict free combinations, each a read-only list with one section per
+	 * course ordered from the course with the fewest sections to the one with the most
+	 * @throws IllegalArgumentException if maxResults is negative
+	 */
+	public Stream<List<Course>> generateSchedules(List<String> courseNames, long maxResults) {
+		if(maxResults < 0) {
+			throw new IllegalArgumentException("Invalid number of schedules.");
+		}
+		
+		ArrayList<ArrayList<Course>> courseSections = new ArrayList<ArrayList<Course>>();
+		for(String name : new LinkedHashSet<String>(courseNames)) {
+			courseSections.add(getCourseSectionsFromCatalog(name));
+		}
+		ScheduleSearch search = new ScheduleSearch(courseSections);
+		Stream<List<Course>> schedules = StreamSupport.stream(search, true);
+		//The estimate is an upper bound, so a cap above it can never be reached
+		return maxResults < search.estimateSize() ? schedules.limit(maxResults) : schedules;
+	}
+	
+	/**
+	 * Finds the conflict free combinations of one section of each of the given courses with the
+	 * lowest cost for the objective.  The search uses branch and bound, so it does not have to
+	 * list every combination.
+	 * @param courseNames names of the wanted courses, repeated names are only used once
+	 * @param objective weights used to score a combination, lower is better
+	 * @param k number of combinations to return
+	 * @return up to k combinations from the lowest cost to the highest, each with one section
+	 * per course ordered from the course with the fewest sections to the one with the most
+	 * @throws IllegalArgumentException if the objective is null or k is negative
+	 */
+	public ArrayList<ArrayList<Course>> getBestSchedules(List<String> courseNames, ScheduleObjective objective, int k) {
+		if(objective == null || k < 0) {
+			throw new IllegalArgumentException("Invalid schedule objective.");
+		}
+		
+		ArrayList<ArrayList<Course>> courseSections = new ArrayList<ArrayList<Course>>();
+		for(String name : new LinkedHashSet<String>(courseNames)) {
+			courseSections.add(getCourseSectionsFromCatalog(name));
+		}
+		return new ScheduleOptimizer(courseSections, objective).findBest(k);
+	}
+	
+	/**
+	 * Adds new course to the schedule if it has not been added already, does not cause conflicts
+	 * with any activities in the schedule, and has an open seat.  The seat is taken only once
+	 * the course is known to fit, while the schedule is locked, so the seat and the schedule
+	 * change are made together.
 	 * @param name name of course to be added
 	 * @param section of the course to be added
-	 * @throws IllegalArgumentException if the course to be added causes a conflict
+	 * @throws IllegalArgumentException if the course to be added causes a conflict or is full
 	 * @return true if the course can be added
 	 */
 	public boolean addCourseToSchedule(String name, String section) {
 
 		Course courseToAdd = getCourseFromCatalog(name, section);
-		if(!catalog.contains(courseToAdd)) {
+		if(courseToAdd == null) {
 			return false;
 		}
 		
-		if(schedule.size() == 0) {
-			schedule.add(courseToAdd);
+		synchronized(scheduleLock) {
+			ScheduleSnapshot current = schedule;
+			for (Activity activity : current.getActivities()) {
+				if(activity.isDuplicate(courseToAdd)) {
+					throw new IllegalArgumentException("You are already enrolled in " + name);
+				}
+			}
+	
+			if(!current.getOccupancy().fits(courseToAdd)) { 
+				throw new IllegalArgumentException("The course cannot be added due to a conflict.");
+			}
+			
+			if(!enrollment.reserve(courseToAdd, this)) {
+				throw new IllegalArgumentException("The course is full.");
+			}
+		    schedule = current.withAdded(courseToAdd);
+		    for(ScheduleListener listener : scheduleListeners) {
+		    	listener.activityAdded(current.getActivities().size(), courseToAdd);
+		    }
+		}
+	    return true;
+	}
+	
+	/**
+	 * Adds a course to the schedule with a seat already taken for it from the waitlist, if the
+	 * course still fits.  The session is recorded as holding the seat together with the add.
+	 * @param course to add
+	 * @return true if the course was added, false if it is already in the schedule or conflicts
+	 */
+	boolean enrollFromWaitlist(Course course) {
+		synchronized(scheduleLock) {
+			ScheduleSnapshot current = schedule;
+			for (Activity activity : current.getActivities()) {
+				if(activity.isDuplicate(course)) {
+					return false;
+				}
+			}
+			if(!current.getOccupancy().fits(course) || !enrollment.hold(course, this)) {
+				return false;
+			}
+			schedule = current.withAdded(course);
+			for(ScheduleListener listener : scheduleListeners) {
+				listener.activityAdded(current.getActivities().size(), course);
+			}
 			return true;
-		} else {			
-			boolean dup = false;
-			for (Activity activity : schedule) {
-	            dup = activity.isDuplicate(courseToAdd);
-	            if(dup) {
-	            	throw new IllegalArgumentException("You are already enrolled in " + name);
-	            }
-	        }		    
 		}
-
-		try {		
-			for(int i = 0; i < schedule.size(); i++) {
-				if(schedule.get(i) instanceof Event) {
-					continue;
+	}
+	
+	/**
+	 * Waits for a seat in a full section.  When a seat opens, the course is added to the
+	 * schedule if it still fits, and otherwise the seat goes to the next session waiting.  If
+	 * a seat is already open the course may be added before this returns.
+	 * @param name of the course
+	 * @param section of the course
+	 * @return true if the session is waiting or was enrolled, false if the course is not in
+	 * the catalog
+	 * @throws IllegalArgumentException if the course is already in the schedule or its section
+	 * has no seat limit
+	 */
+	public boolean joinWaitlist(String name, String section) {
+		Course course = getCourseFromCatalog(name, section);
+		if(course == null) {
+			return false;
+		}
+		synchronized(scheduleLock) {
+			for (Activity activity : schedule.getActivities()) {
+				if(activity.isDuplicate(course)) {
+					throw new IllegalArgumentException("You are already enrolled in " + name);
 				}
-				Activity c = schedule.get(i);
-	            c.checkConflict(courseToAdd);
 			}
-		} catch(ConflictException e) { 
-			throw new IllegalArgumentException("The course cannot be added due to a conflict.");
+			if(!enrollment.joinWaitlist(course, this)) {
+				throw new IllegalArgumentException("The course has no waitlist.");
+			}
 		}
-		
-	    schedule.add(courseToAdd);
-	    return true;
+		enrollment.fillWaitlist(course);
+		return true;
+	}
+	
+	/**
+	 * Stops waiting for a seat in a section
+	 * @param name of the course
+	 * @param section of the course
+	 * @return true if the session was waiting
+	 */
+	public boolean leaveWaitlist(String name, String section) {
+		synchronized(scheduleLock) {
+			return enrollment.leaveWaitlist(name, section, this);
+		}
+	}
+	
+	/**
+	 * Returns true if the activity does not conflict with any activity in the schedule.  This
+	 * only checks meeting times, not whether the activity is a duplicate.
+	 * @param activity to check against the schedule
+	 * @return true if the activity fits in the schedule
+	 */
+	public boolean fitsSchedule(Activity activity) {
+		return schedule.getOccupancy().fits(activity);
+	}
+	
+	/**
+	 * Returns every activity in the schedule that conflicts with the given activity
+	 * @param activity to check against the schedule
+	 * @return activities in the schedule that conflict with the activity, empty if there are none
+	 */
+	public ArrayList<Activity> getScheduleConflicts(Activity activity) {
+		return schedule.getConflictIndex().getConflicts(activity);
 	}
 
 	
 	/**
-	 * Removes specified course from the schedule
+	 * Removes specified course from the schedule.  The seat of a removed course is given
+	 * back together with the removal, and handed to a waiting session once the schedule is
+	 * unlocked.
 	 * @param idx index value of the course to be removed
 	 * @return true if the course can be removed
 	 */
 	public boolean removeActivityFromSchedule(int idx) throws IndexOutOfBoundsException{
-		if (idx >= schedule.size() || idx < 0) {
-	        return false;
-	    } 
-		if (idx < schedule.size()){ 
-	        schedule.remove(idx);
-	        return true;
-	    }
-		return false;
+		Activity removed;
+		synchronized(scheduleLock) {
+			ScheduleSnapshot current = schedule;
+			if (idx >= current.getActivities().size() || idx < 0) {
+		        return false;
+		    } 
+	        removed = current.getActivities().get(idx);
+	        schedule = current.withRemoved(idx);
+	        for(ScheduleListener listener : scheduleListeners) {
+	        	listener.activityRemoved(idx, removed);
+	        }
+	        if(removed instanceof Course) {
+	        	enrollment.release((Course) removed, this);
+	        }
+		}
+		if(removed instanceof Course) {
+			enrollment.fillWaitlist((Course) removed);
+		}
+		return true;
 	}
 	
 	/**
-	 * Resets the schedule completely 
+	 * Resets the schedule completely, giving back the seats of its courses
 	 */
 	public void resetSchedule() {
-		schedule = new ArrayList<Activity>();		
+		List<Activity> dropped;
+		synchronized(scheduleLock) {
+			dropped = schedule.getActivities();
+			schedule = ScheduleSnapshot.EMPTY;
+			for(ScheduleListener listener : scheduleListeners) {
+				listener.scheduleReset();
+			}
+			for(Activity activity : dropped) {
+				if(activity instanceof Course) {
+					enrollment.release((Course) activity, this);
+				}
+			}
+		}
+		for(Activity activity : dropped) {
+			if(activity instanceof Course) {
+				enrollment.fillWaitlist((Course) activity);
+			}
+		}
 	}
 
 	/**
@@ -194,7 +705,12 @@ public class WolfScheduler {
 		if(title == null) {
 			throw new IllegalArgumentException("Title cannot be null.");
 		}
-		this.title = title;
+		synchronized(scheduleLock) {
+			this.title = title;
+			for(ScheduleListener listener : scheduleListeners) {
+				listener.scheduleTitleChanged(title);
+			}
+		}
 	}
 	
 	/**
@@ -206,34 +722,51 @@ public class WolfScheduler {
 	 * @param eventDetails of the event
 	 * @throws IllegalArgumentException with the message "You have created an event called..." if the 
 	 * user tries to add an event that already exists with the same name in the schedule
-	 * @throws IllegalArgumentException with the message "The course cannot be added due to a conflict."
-	 * if the event to be added causes a timing conflict with an event in the schedule
+	 * @throws IllegalArgumentException with the message "The event cannot be added due to a conflict."
+	 * if the event to be added causes a timing conflict with an activity in the schedule
 	 */
 	public void addEventToSchedule(String eventTitle, String eventMeetingDays, int eventStartTime, int eventEndTime, String eventDetails) {
 		Activity otherEvent = new Event(eventTitle, eventMeetingDays, eventStartTime, eventEndTime, eventDetails);
 	    
-		for(Activity runner : schedule) {
-			if (otherEvent.isDuplicate(runner)) {
-		        throw new IllegalArgumentException("You have already created an event called " + eventTitle);
-		    }
-		} 
-		
-		try {		 
-			for(int i = 0; i < schedule.size(); i++) {
-				if(schedule.get(i) instanceof Course) {
-					continue;
-				}
-				Activity c = schedule.get(i);
-	            c.checkConflict(otherEvent);
+		synchronized(scheduleLock) {
+			ScheduleSnapshot current = schedule;
+			for(Activity runner : current.getActivities()) {
+				if (otherEvent.isDuplicate(runner)) {
+			        throw new IllegalArgumentException("You have already created an event called " + eventTitle);
+			    }
+			} 
+			
+			if(!current.getOccupancy().fits(otherEvent)) {
+				throw new IllegalArgumentException("The event cannot be added due to a conflict.");
 			}
-		} catch(ConflictException e) {
-			throw new IllegalArgumentException("The event cannot be added due to a conflict.");
+			
+		    schedule = current.withAdded(otherEvent);
+		    for(ScheduleListener listener : scheduleListeners) {
+		    	listener.activityAdded(current.getActivities().size(), otherEvent);
+		    }
 		}
-		  
-		
-	    schedule.add(otherEvent);
 	} 
 	
+	/**
+	 * Adds a listener that is told about every later change to the schedule
+	 * @param listener to add
+	 * @throws IllegalArgumentException if the listener is null
+	 */
+	public void addScheduleListener(ScheduleListener listener) {
+		if(listener == null) {
+			throw new IllegalArgumentException("Invalid schedule listener.");
+		}
+		scheduleListeners.add(listener);
+	}
+	
+	/**
+	 * Removes a listener added with {@link #addScheduleListener(ScheduleListener)}
+	 * @param listener to remove
+	 */
+	public void removeScheduleListener(ScheduleListener listener) {
+		scheduleListeners.remove(listener);
+	}
+	
 	/**
 	 * Exports the final schedule into a file
 	 * @param fileName to be printed into
@@ -241,7 +774,7 @@ public class WolfScheduler {
 	 */
 	public void exportSchedule(String fileName) {
 		try {
-			ActivityRecordIO.writeActivityRecords(fileName, schedule);
+			ActivityRecordIO.writeActivityRecords(fileName, new ArrayList<Activity>(schedule.getActivities()));
 		} catch (IOException e) {
 			throw new IllegalArgumentException("The file cannot be saved.");  
 		}
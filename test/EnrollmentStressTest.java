@@ -0,0 +1,389 @@
+package edu.ncsu.csc216.wolf_scheduler.test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+import edu.ncsu.csc216.wolf_scheduler.course.Activity;
+import edu.ncsu.csc216.wolf_scheduler.course.Course;
+import edu.ncsu.csc216.wolf_scheduler.scheduler.CatalogSource;
+import edu.ncsu.csc216.wolf_scheduler.scheduler.CourseCatalog;
+import edu.ncsu.csc216.wolf_scheduler.scheduler.EnrollmentRegistry;
+import edu.ncsu.csc216.wolf_scheduler.scheduler.ScheduleListener;
+import edu.ncsu.csc216.wolf_scheduler.scheduler.WolfScheduler;
+
+/**
+ * Stress test of the seat limits kept by {@link EnrollmentRegistry}.  Many sessions sharing a
+ * registry add, drop and wait for a few small sections from several threads at once, while
+ * limits are set on sections that already have students and raised during the run.  The test
+ * fails if a section ever holds more students than its capacity, or if the seats counted by
+ * the registry do not match the students enrolled once the threads stop.
+ *
+ * Run it from the directory holding the compiled classes with
+ * {@code java edu.ncsu.csc216.wolf_scheduler.test.EnrollmentStressTest [milliseconds]}.
+ * It exits with status 1 if a check fails.
+ *
+ * @author Riya Gunda
+ */
+public class EnrollmentStressTest {
+
+	/** Number of sessions enrolling */
+	private static final int SESSIONS = 2000;
+
+	/** Number of threads changing schedules */
+	private static final int THREADS = 16;
+
+	/** Sections of the catalog */
+	private final ArrayList<Course> courses = new ArrayList<Course>();
+
+	/** Registry shared by every session */
+	private final EnrollmentRegistry registry = new EnrollmentRegistry();
+
+	/** Students in each section, as told to the schedule listeners */
+	private AtomicIntegerArray held;
+
+	/** Number of times a section held more students than its capacity */
+	private final AtomicInteger overCapacity = new AtomicInteger();
+
+	/** Number of failed checks */
+	private int failures;
+
+	/**
+	 * Runs the test
+	 * @param args milliseconds to run each concurrent phase for, 3000 if not given
+	 * @throws InterruptedException if interrupted while waiting for the threads
+	 */
+	public static void main(String[] args) throws InterruptedException {
+		long millis = args.length > 0 ? Long.parseLong(args[0]) : 3000;
+		EnrollmentStressTest test = new EnrollmentStressTest();
+		test.capacityAfterEnrollment();
+		test.addAfterDrop(millis);
+		test.joinWaitlistOnce();
+		test.concurrentEnrollment(millis);
+		if(test.failures > 0) {
+			System.out.println(test.failures + " checks failed");
+			System.exit(1);
+		}
+		System.out.println("All checks passed");
+	}
+
+	/**
+	 * Sets a limit on a section that a student enrolled in while it had none, and checks that
+	 * the student counts against the limit and only frees a seat by dropping the course
+	 */
+	private void capacityAfterEnrollment() {
+		ArrayList<Course> catalog = new ArrayList<Course>();
+		catalog.add(new Course("CSC 216", "Software Development Fundamentals", "001", 3, "sesmith5", "MW", 1330, 1445));
+		CatalogSource source = new CatalogSource(new CourseCatalog(catalog, null));
+		EnrollmentRegistry seats = new EnrollmentRegistry();
+		WolfScheduler a = new WolfScheduler(source, seats);
+		WolfScheduler b = new WolfScheduler(source, seats);
+		WolfScheduler c = new WolfScheduler(source, seats);
+
+		a.addCourseToSchedule("CSC 216", "001");
+		seats.setCapacity("CSC 216", "001", 1);
+		check(seats.getEnrolled("CSC 216", "001") == 1 && seats.getOpenSeats("CSC 216", "001") == 0,
+				"a limit set after enrolling counts the enrolled student");
+		check(!addsCourse(b), "a full section turns away a second student");
+		a.removeActivityFromSchedule(0);
+		check(addsCourse(c), "dropping the course frees the seat");
+		check(!addsCourse(b), "the freed seat is only given once");
+		b.removeActivityFromSchedule(0);
+		check(seats.getEnrolled("CSC 216", "001") == 1, "dropping a course that was never added frees nothing");
+		check(seats.getEnrolled("CSC 216", "001") + seats.getOpenSeats("CSC 216", "001") == 1,
+				"enrolled and open seats add up to the capacity");
+	}
+
+	/**
+	 * Drops and adds the only seat of a section for one session from two threads at once.  The
+	 * seat is given back together with the drop, so the add never finds the section full.
+	 * @param millis milliseconds to run for
+	 * @throws InterruptedException if interrupted while waiting for the threads
+	 */
+	private void addAfterDrop(long millis) throws InterruptedException {
+		ArrayList<Course> catalog = new ArrayList<Course>();
+		catalog.add(new Course("CSC 216", "Software Development Fundamentals", "001", 3, "sesmith5", "MW", 1330, 1445));
+		EnrollmentRegistry seats = new EnrollmentRegistry();
+		seats.setCapacity("CSC 216", "001", 1);
+		final WolfScheduler session = new WolfScheduler(new CatalogSource(new CourseCatalog(catalog, null)), seats);
+		final AtomicBoolean stop = new AtomicBoolean();
+		final AtomicInteger full = new AtomicInteger();
+		Thread dropper = new Thread(new Runnable() {
+			@Override
+			public void run() {
+				while(!stop.get()) {
+					session.removeActivityFromSchedule(0);
+				}
+			}
+		});
+		Thread adder = new Thread(new Runnable() {
+			@Override
+			public void run() {
+				while(!stop.get()) {
+					try {
+						session.addCourseToSchedule("CSC 216", "001");
+					} catch(IllegalArgumentException e) {
+						if("The course is full.".equals(e.getMessage())) {
+							full.incrementAndGet();
+						}
+					}
+				}
+			}
+		});
+		dropper.start();
+		adder.start();
+		Thread.sleep(millis / 3);
+		stop.set(true);
+		dropper.join();
+		adder.join();
+		check(full.get() == 0, "a dropped seat can be added again at once (full " + full.get() + " times)");
+		check(seats.getEnrolled("CSC 216", "001") == session.getSchedule().size(),
+				"the seat is held exactly while the course is scheduled");
+	}
+
+	/**
+	 * Joins the waitlist of a full section for one session from several threads at once, and
+	 * checks that the session takes a single place that one leave gives up
+	 * @throws InterruptedException if interrupted while waiting for the threads
+	 */
+	private void joinWaitlistOnce() throws InterruptedException {
+		ArrayList<Course> catalog = new ArrayList<Course>();
+		catalog.add(new Course("CSC 216", "Software Development Fundamentals", "001", 3, "sesmith5", "MW", 1330, 1445));
+		EnrollmentRegistry seats = new EnrollmentRegistry();
+		seats.setCapacity("CSC 216", "001", 0);
+		final WolfScheduler session = new WolfScheduler(new CatalogSource(new CourseCatalog(catalog, null)), seats);
+		int twice = 0;
+		for(int round = 0; round < 200; round++) {
+			List<Thread> threads = new ArrayList<Thread>();
+			for(int t = 0; t < 4; t++) {
+				threads.add(new Thread(new Runnable() {
+					@Override
+					public void run() {
+						session.joinWaitlist("CSC 216", "001");
+					}
+				}));
+			}
+			for(Thread thread : threads) {
+				thread.start();
+			}
+			for(Thread thread : threads) {
+				thread.join();
+			}
+			if(seats.getWaitlistSize("CSC 216", "001") != 1) {
+				twice++;
+			}
+			session.leaveWaitlist("CSC 216", "001");
+		}
+		check(twice == 0, "a session waits for a section at most once (" + twice + " rounds)");
+		check(seats.getWaitlistSize("CSC 216", "001") == 0, "leaving the waitlist gives up the only place");
+	}
+
+	/**
+	 * Adds CSC 216 to a schedule
+	 * @param session to add the course to
+	 * @return true if the course was added, false if the section was full
+	 */
+	private static boolean addsCourse(WolfScheduler session) {
+		try {
+			return session.addCourseToSchedule("CSC 216", "001");
+		} catch(IllegalArgumentException e) {
+			return false;
+		}
+	}
+
+	/**
+	 * Enrolls sessions from several threads in two phases.  Half the sections have no limit
+	 * in the first phase.  Between the phases every section gets a limit, some below the
+	 * number of students already in them, and during the second phase limits are raised.
+	 * @param millis milliseconds to run each phase for
+	 * @throws InterruptedException if interrupted while waiting for the threads
+	 */
+	private void concurrentEnrollment(long millis) throws InterruptedException {
+		String[] days = {"M", "T", "W", "H", "F"};
+		for(int i = 0; i < 10; i++) {
+			courses.add(new Course("HOT " + (100 + i), "Hot", "001", 3, "prof" + i, days[i % 5], 800 + 200 * (i / 5), 900 + 200 * (i / 5)));
+		}
+		courses.add(new Course("CLS 200", "Clash", "001", 3, "prof", "MTWHF", 830, 1030));
+		held = new AtomicIntegerArray(courses.size());
+		for(int i = 0; i < courses.size(); i += 2) {
+			registry.setCapacity(courses.get(i).getName(), courses.get(i).getSection(), i % 4 == 0 ? 1 : 20);
+		}
+
+		CatalogSource source = new CatalogSource(new CourseCatalog(courses, null));
+		WolfScheduler[] sessions = new WolfScheduler[SESSIONS];
+		for(int i = 0; i < SESSIONS; i++) {
+			sessions[i] = new WolfScheduler(source, registry);
+			sessions[i].addScheduleListener(new ScheduleListener() {
+				@Override
+				public void activityAdded(int index, Activity activity) {
+					int row = courses.indexOf(activity);
+					int capacity = registry.getCapacity(courses.get(row).getName(), courses.get(row).getSection());
+					if(held.incrementAndGet(row) > capacity && capacity != EnrollmentRegistry.UNLIMITED) {
+						overCapacity.incrementAndGet();
+					}
+				}
+
+				@Override
+				public void activityRemoved(int index, Activity activity) {
+					held.decrementAndGet(courses.indexOf(activity));
+				}
+
+				@Override
+				public void scheduleReset() {
+					throw new IllegalStateException("Schedules are not reset in this test");
+				}
+
+				@Override
+				public void scheduleTitleChanged(String title) {
+					//Not tracked
+				}
+			});
+		}
+
+		runPhase(sessions, millis, false);
+		checkSeats(sessions, "after the first phase");
+		Random random = new Random(1);
+		for(int i = 0; i < courses.size(); i++) {
+			Course course = courses.get(i);
+			if(registry.getCapacity(course.getName(), course.getSection()) == EnrollmentRegistry.UNLIMITED) {
+				int enrolled = registry.getEnrolled(course.getName(), course.getSection());
+				registry.setCapacity(course.getName(), course.getSection(), Math.max(0, enrolled + random.nextInt(21) - 10));
+			}
+		}
+		checkSeats(sessions, "after setting limits on enrolled sections");
+		runPhase(sessions, millis, true);
+		checkSeats(sessions, "after the second phase");
+		check(overCapacity.get() == 0, "no section went over its capacity (" + overCapacity.get() + " times)");
+	}
+
+	/**
+	 * Runs threads making random changes to random schedules
+	 * @param sessions to change
+	 * @param millis milliseconds to run for
+	 * @param raiseLimits whether another thread raises limits while the schedules change
+	 * @throws InterruptedException if interrupted while waiting for the threads
+	 */
+	private void runPhase(final WolfScheduler[] sessions, long millis, boolean raiseLimits) throws InterruptedException {
+		final AtomicBoolean stop = new AtomicBoolean();
+		final AtomicBoolean crashed = new AtomicBoolean();
+		List<Thread> threads = new ArrayList<Thread>();
+		for(int t = 0; t < THREADS; t++) {
+			final Random random = new Random(t);
+			threads.add(new Thread(new Runnable() {
+				@Override
+				public void run() {
+					try {
+						while(!stop.get()) {
+							change(sessions[random.nextInt(sessions.length)], random);
+						}
+					} catch(RuntimeException e) {
+						e.printStackTrace();
+						crashed.set(true);
+					}
+				}
+			}));
+		}
+		if(raiseLimits) {
+			threads.add(new Thread(new Runnable() {
+				@Override
+				public void run() {
+					Random random = new Random(THREADS);
+					try {
+						while(!stop.get()) {
+							Course course = courses.get(random.nextInt(courses.size()));
+							int capacity = registry.getCapacity(course.getName(), course.getSection());
+							registry.setCapacity(course.getName(), course.getSection(), capacity + 1);
+							Thread.sleep(5);
+						}
+					} catch(InterruptedException e) {
+						//Stopped
+					} catch(RuntimeException e) {
+						e.printStackTrace();
+						crashed.set(true);
+					}
+				}
+			}));
+		}
+		for(Thread thread : threads) {
+			thread.start();
+		}
+		Thread.sleep(millis);
+		stop.set(true);
+		for(Thread thread : threads) {
+			thread.join();
+		}
+		check(!crashed.get(), "no thread failed");
+	}
+
+	/**
+	 * Makes one random change to a schedule
+	 * @param session to change
+	 * @param random source of the change
+	 */
+	private void change(WolfScheduler session, Random random) {
+		Course course = courses.get(random.nextInt(courses.size()));
+		int op = random.nextInt(10);
+		try {
+			if(op < 5) {
+				session.addCourseToSchedule(course.getName(), course.getSection());
+			} else if(op < 7) {
+				session.joinWaitlist(course.getName(), course.getSection());
+			} else if(op < 8) {
+				session.leaveWaitlist(course.getName(), course.getSection());
+			} else {
+				int size = session.getSchedule().size();
+				if(size > 0) {
+					session.removeActivityFromSchedule(random.nextInt(size));
+				}
+			}
+		} catch(IllegalArgumentException e) {
+			//Full, conflicting, already enrolled or without a waitlist
+		}
+	}
+
+	/**
+	 * Checks that the registry counts every enrolled student once, that the enrolled and open
+	 * seats of a section add up to its capacity, and that no seat is open while a session waits
+	 * @param sessions enrolled
+	 * @param when the check is made, for the report
+	 */
+	private void checkSeats(WolfScheduler[] sessions, String when) {
+		for(int i = 0; i < courses.size(); i++) {
+			Course course = courses.get(i);
+			int students = 0;
+			for(WolfScheduler session : sessions) {
+				if(session.getSchedule().contains(course)) {
+					students++;
+				}
+			}
+			String name = course.getName();
+			String section = course.getSection();
+			int enrolled = registry.getEnrolled(name, section);
+			int capacity = registry.getCapacity(name, section);
+			int open = registry.getOpenSeats(name, section);
+			String label = name + "-" + section + " " + when;
+			check(enrolled == students && held.get(i) == students,
+					label + ": " + students + " students, " + enrolled + " counted");
+			if(capacity != EnrollmentRegistry.UNLIMITED) {
+				check(open == Math.max(0, capacity - enrolled), label + ": " + enrolled + " enrolled and "
+						+ open + " open in " + capacity + " seats");
+				check(open == 0 || registry.getWaitlistSize(name, section) == 0, label + ": seat open while waiting");
+			}
+		}
+	}
+
+	/**
+	 * Records a check, reporting it if it failed
+	 * @param passed whether the check passed
+	 * @param description of the check
+	 */
+	private void check(boolean passed, String description) {
+		if(!passed) {
+			failures++;
+			System.out.println("FAILED: " + description);
+		}
+	}
+}
@@ -9,6 +9,11 @@ import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
 import java.awt.event.MouseEvent;
 import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
 
 import javax.swing.BorderFactory;
 import javax.swing.JButton;
@@ -19,18 +24,28 @@ import javax.swing.JFrame;
 import javax.swing.JLabel;
 import javax.swing.JOptionPane;
 import javax.swing.JPanel;
+import javax.swing.JProgressBar;
 import javax.swing.JScrollPane;
 import javax.swing.JTable;
 import javax.swing.JTextField;
 import javax.swing.ListSelectionModel;
+import javax.swing.SwingWorker;
+import javax.swing.Timer;
 import javax.swing.border.Border;
 import javax.swing.border.EtchedBorder;
 import javax.swing.border.TitledBorder;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
 import javax.swing.event.ListSelectionEvent;
 import javax.swing.event.ListSelectionListener;
 import javax.swing.table.AbstractTableModel;
 
+import edu.ncsu.csc216.wolf_scheduler.course.Activity;
 import edu.ncsu.csc216.wolf_scheduler.course.Course;
+import edu.ncsu.csc216.wolf_scheduler.io.CourseRecordIO;
+import edu.ncsu.csc216.wolf_scheduler.io.CourseRecordListener;
+import edu.ncsu.csc216.wolf_scheduler.io.CourseRecordStats;
+import edu.ncsu.csc216.wolf_scheduler.scheduler.ScheduleListener;
 import edu.ncsu.csc216.wolf_scheduler.scheduler.WolfScheduler;
 
 /**
@@ -59,6 +74,10 @@ public class WolfSchedulerGUI extends JFrame {
 	private CardLayout cardLayout;
 	/** Reference to the WolfScheduler */
 	private WolfScheduler scheduler;
+	/** Milliseconds to wait after the user stops typing before searching the catalog */
+	private static final int SEARCH_DELAY = 150;
+	/** Background task loading the course catalog */
+	private CatalogLoader catalogLoader;
 
 	/**
 	 * Constructs the WolfSchedulerGUI and sets up the GUI 
@@ -73,12 +92,14 @@ public class WolfSchedulerGUI extends JFrame {
 		setTitle(APP_TITLE);
 		setDefaultCloseOperation(EXIT_ON_CLOSE);
 		
-		//Construct the underlying model object
+		//Construct the underlying model object, the catalog is loaded after the GUI is shown
+		String catalogFile = null;
 		try {			
-			scheduler = new WolfScheduler(getFileName(true));
+			catalogFile = getFileName(true);
 		} catch (IllegalStateException e) {
 			System.exit(1);
 		}
+		scheduler = new WolfScheduler();
 		
 		//Construct panels
 		pnlScheduler = new SchedulerPanel();
@@ -100,6 +121,10 @@ public class WolfSchedulerGUI extends JFrame {
 		
 		//Set the GUI visible
 		setVisible(true);
+		
+		//Fill in the catalog as the courses are read
+		catalogLoader = new CatalogLoader(catalogFile);
+		catalogLoader.execute();
 	}
 	
 	/**
@@ -127,6 +152,95 @@ public class WolfSchedulerGUI extends JFrame {
 		return catalogFile.getAbsolutePath();
 	}
 
+	/**
+	 * Reads the course catalog on a background thread and adds the courses to the
+	 * {@link WolfScheduler} on the event dispatch thread in batches as they are read, so the
+	 * window stays responsive while a large catalog loads.  The catalog is read from its
+	 * snapshot when it has not changed, and otherwise parsed in parallel.  Courses added before
+	 * the load is cancelled stay in the catalog.
+	 */
+	private class CatalogLoader extends SwingWorker<Void, Course> implements CourseRecordListener {
+		/** Catalog file to read */
+		private String fileName;
+		
+		/** Counts for the load, given to the catalog once the whole file is read */
+		private CourseRecordStats stats = new CourseRecordStats();
+		
+		/**
+		 * Constructs a loader for the given catalog file
+		 * @param fileName catalog file to read
+		 */
+		public CatalogLoader(String fileName) {
+			this.fileName = fileName;
+		}
+		
+		/**
+		 * Reads the catalog file, handing the courses to the event dispatch thread in batches.
+		 * @return nothing
+		 * @throws IOException if the file cannot be found or read
+		 */
+		@Override
+		protected Void doInBackground() throws IOException {
+			CourseRecordIO.readCourseRecordsCached(fileName, stats, this);
+			return null;
+		}
+		
+		/**
+		 * Publishes a batch of courses and the progress through the file.
+		 * @param courses read since the last batch
+		 * @param bytesRead number of bytes of the file read so far
+		 * @param fileSize size of the file in bytes
+		 * @return false once the load is cancelled
+		 */
+		@Override
+		public boolean coursesRead(List<Course> courses, long bytesRead, long fileSize) {
+			publish(courses.toArray(new Course[courses.size()]));
+			setProgress(fileSize == 0 ? 100 : (int) Math.min(100, bytesRead * 100 / fileSize));
+			return !isCancelled();
+		}
+		
+		/**
+		 * Adds the published courses to the catalog and shows them in the catalog table.
+		 * @param courses published since the last call
+		 */
+		@Override
+		protected void process(List<Course> courses) {
+			int first = scheduler.getCatalogSize();
+			scheduler.addCoursesToCatalog(courses);
+			pnlScheduler.catalogRowsAdded(first, scheduler.getCatalogSize() - 1);
+			pnlScheduler.showLoadProgress(getProgress(), scheduler.getCatalogSize());
+		}
+		
+		/**
+		 * Hides the progress of the load, gives the counts of a finished load to the catalog,
+		 * and tells the user if the file could not be read.
+		 */
+		@Override
+		protected void done() {
+			pnlScheduler.hideLoadProgress();
+			if (isCancelled()) {
+				return;
+			}
+			try {
+				get();
+				scheduler.setCatalogStats(stats);
+			} catch (InterruptedException | ExecutionException e) {
+				JOptionPane.showMessageDialog(WolfSchedulerGUI.this, "File not found.");
+			}
+		}
+	}
+	
+	/**
+	 * Copies a display row into a row a table model can store any cell value in.
+	 * @param displayRow display array of an activity
+	 * @return copy of the row
+	 */
+	private static Object [] toRow(String [] displayRow) {
+		Object [] row = new Object[displayRow.length];
+		System.arraycopy(displayRow, 0, row, 0, displayRow.length);
+		return row;
+	}
+
 	/**
 	 * Starts the Wolf Scheduler program.
 	 * @param args command line arguments
@@ -158,6 +272,20 @@ public class WolfSchedulerGUI extends JFrame {
 		private JTable tableSchedule;
 		/** TableModel for catalog */
 		private CourseTableModel catalogTableModel;
+		/** Check box for only showing catalog courses that fit in the schedule */
+		private JCheckBox cbFittingOnly;
+		/** Text field for searching the catalog */
+		private JTextField txtCatalogSearch;
+		/** Timer that waits for the user to stop typing before searching the catalog */
+		private Timer searchTimer;
+		/** Most recent search of the catalog, the only one whose results are shown */
+		private CatalogSearch catalogSearch;
+		/** Panel showing the progress of loading the catalog */
+		private JPanel pnlLoading;
+		/** Progress bar for loading the catalog */
+		private JProgressBar barLoading;
+		/** Button for cancelling the catalog load */
+		private JButton btnCancelLoad;
 		/** TableModel for schedule */
 		private CourseTableModel scheduleTableModel;
 		/** Student's Schedule title label */
@@ -310,6 +438,9 @@ public class WolfSchedulerGUI extends JFrame {
 
 				@Override
 				public void valueChanged(ListSelectionEvent e) {
+					if (tableCatalog.getSelectedRow() == -1) {
+						return;
+					}
 					String name = tableCatalog.getValueAt(tableCatalog.getSelectedRow(), 0).toString();
 					String section = tableCatalog.getValueAt(tableCatalog.getSelectedRow(), 1).toString();
 					Course c = scheduler.getCourseFromCatalog(name, section);
@@ -320,9 +451,53 @@ public class WolfSchedulerGUI extends JFrame {
 			
 			JScrollPane scrollCatalog = new JScrollPane(tableCatalog);
 			
+			cbFittingOnly = new JCheckBox("Only show courses that fit my schedule");
+			cbFittingOnly.addActionListener(this);
+			
+			barLoading = new JProgressBar(0, 100);
+			barLoading.setStringPainted(true);
+			barLoading.setString("Loading catalog");
+			btnCancelLoad = new JButton("Cancel");
+			btnCancelLoad.addActionListener(this);
+			pnlLoading = new JPanel(new BorderLayout());
+			pnlLoading.add(barLoading, BorderLayout.CENTER);
+			pnlLoading.add(btnCancelLoad, BorderLayout.EAST);
+			
+			txtCatalogSearch = new JTextField();
+			txtCatalogSearch.setToolTipText("Search by course name, title, or instructor");
+			txtCatalogSearch.getDocument().addDocumentListener(new DocumentListener() {
+				
+				@Override
+				public void insertUpdate(DocumentEvent e) {
+					searchTimer.restart();
+				}
+				
+				@Override
+				public void removeUpdate(DocumentEvent e) {
+					searchTimer.restart();
+				}
+				
+				@Override
+				public void changedUpdate(DocumentEvent e) {
+					searchTimer.restart();
+				}
+			});
+			searchTimer = new Timer(SEARCH_DELAY, this);
+			searchTimer.setRepeats(false);
+			
+			JPanel pnlCatalogFilter = new JPanel(new BorderLayout());
+			pnlCatalogFilter.add(new JLabel("Search: "), BorderLayout.WEST);
+			pnlCatalogFilter.add(txtCatalogSearch, BorderLayout.CENTER);
+			pnlCatalogFilter.add(cbFittingOnly, BorderLayout.SOUTH);
+			
+			JPanel pnlCatalog = new JPanel(new BorderLayout());
+			pnlCatalog.add(pnlCatalogFilter, BorderLayout.NORTH);
+			pnlCatalog.add(scrollCatalog, BorderLayout.CENTER);
+			pnlCatalog.add(pnlLoading, BorderLayout.SOUTH);
+			
 			TitledBorder borderCatalog = BorderFactory.createTitledBorder(lowerEtched, "Course Catalog");
-			scrollCatalog.setBorder(borderCatalog);
-			scrollCatalog.setToolTipText("Course Catalog");
+			pnlCatalog.setBorder(borderCatalog);
+			pnlCatalog.setToolTipText("Course Catalog");
 			
 			//Set up Schedule table
 			scheduleTableModel = new CourseTableModel(false);
@@ -337,8 +512,6 @@ public class WolfSchedulerGUI extends JFrame {
 			scrollSchedule.setBorder(borderSchedule);
 			scrollSchedule.setToolTipText(scheduler.getScheduleTitle());
 			
-			updateTables();
-			
 			//Set up the course details panel
 			pnlCourseDetails = new JPanel();
 			pnlCourseDetails.setLayout(new GridLayout(4, 1));
@@ -500,7 +673,7 @@ public class WolfSchedulerGUI extends JFrame {
 			pnlAddEvent.setBorder(borderAddEvent);
 			pnlAddEvent.setToolTipText("AddEvent");
 			
-			add(scrollCatalog);
+			add(pnlCatalog);
 			add(pnlActions);
 			add(scrollSchedule);
 			add(pnlCourseDetails);
@@ -525,7 +698,6 @@ public class WolfSchedulerGUI extends JFrame {
 						JOptionPane.showMessageDialog(WolfSchedulerGUI.this, iae.getMessage());
 					}
 				}
-				updateTables();
 			} else if (e.getSource() == btnRemoveCourse) {
 				int row = tableSchedule.getSelectedRow();
 				if (row == -1 || row == tableSchedule.getRowCount()) {
@@ -533,10 +705,14 @@ public class WolfSchedulerGUI extends JFrame {
 				} else {
 					scheduler.removeActivityFromSchedule(row);
 				}
-				updateTables();
 			} else if (e.getSource() == btnReset) {
 				scheduler.resetSchedule();
-				updateTables();
+			} else if (e.getSource() == cbFittingOnly) {
+				catalogTableModel.updateData();
+			} else if (e.getSource() == searchTimer) {
+				searchCatalog();
+			} else if (e.getSource() == btnCancelLoad) {
+				catalogLoader.cancel(false);
 			} else if (e.getSource() == btnDisplay) {
 				cardLayout.show(panel, SCHEDULE_PANEL);
 				pnlSchedule.updateFinalizedTable();
@@ -546,7 +722,6 @@ public class WolfSchedulerGUI extends JFrame {
 				} catch (IllegalArgumentException iae) {
 					JOptionPane.showMessageDialog(WolfSchedulerGUI.this, "Invalid title.");
 				}
-				borderSchedule.setTitle(scheduler.getScheduleTitle());
 			} else if (e.getSource() == btnAddEvent) {
 				try {
 					String eventMeetingDays = "";
@@ -623,7 +798,6 @@ public class WolfSchedulerGUI extends JFrame {
 					scheduler.addEventToSchedule(txtEventTitle.getText(), eventMeetingDays, eventStartTime, eventEndTime, txtDetails.getText());
 					
 					resetEvent();
-					updateTables();
 				} catch (IllegalArgumentException iae) {
 					String message = iae.getMessage();
 					if (message == null || "".equals(message)) {
@@ -659,11 +833,92 @@ public class WolfSchedulerGUI extends JFrame {
 		}
 		
 		/**
-		 * Updates the catalog and schedule tables.
+		 * Shows the rows of courses just added to the end of the catalog.
+		 * @param first catalog row of the first course added
+		 * @param last catalog row of the last course added
+		 */
+		private void catalogRowsAdded(int first, int last) {
+			catalogTableModel.catalogRowsAdded(first, last);
+			if (txtCatalogSearch.getText().trim().length() != 0) {
+				//The new courses may match the search
+				searchTimer.restart();
+			}
+		}
+		
+		/**
+		 * Starts a search of the catalog for the text in the search field, replacing any
+		 * search still running.  A blank search shows the whole catalog.
+		 */
+		private void searchCatalog() {
+			if (catalogSearch != null) {
+				catalogSearch.cancel(false);
+			}
+			String query = txtCatalogSearch.getText();
+			if (query.trim().length() == 0) {
+				catalogSearch = null;
+				catalogTableModel.setSearchRows(null);
+			} else {
+				catalogSearch = new CatalogSearch(query);
+				catalogSearch.execute();
+			}
+		}
+		
+		/**
+		 * Searches the catalog on a background thread and shows the matching courses in the
+		 * catalog table, unless a newer search has started since.
+		 */
+		private class CatalogSearch extends SwingWorker<int [], Void> {
+			/** Text to search for */
+			private String query;
+			
+			/**
+			 * Constructs a search for the given text
+			 * @param query text to search for
+			 */
+			public CatalogSearch(String query) {
+				this.query = query;
+			}
+			
+			/**
+			 * Searches the catalog.
+			 * @return catalog rows of the matching courses
+			 */
+			@Override
+			protected int [] doInBackground() {
+				return scheduler.searchCatalog(query);
+			}
+			
+			/**
+			 * Shows the matching courses if this is still the most recent search.
+			 */
+			@Override
+			protected void done() {
+				if (catalogSearch != this || isCancelled()) {
+					return;
+				}
+				try {
+					catalogTableModel.setSearchRows(get());
+				} catch (InterruptedException | ExecutionException e) {
+					catalogTableModel.setSearchRows(null);
+				}
+			}
+		}
+		
+		/**
+		 * Shows how much of the catalog has been loaded.
+		 * @param percent percent of the catalog file read
+		 * @param courses number of courses in the catalog so far
 		 */
-		private void updateTables() {
-			catalogTableModel.updateData();
-			scheduleTableModel.updateData();
+		private void showLoadProgress(int percent, int courses) {
+			barLoading.setValue(percent);
+			barLoading.setString(courses + " courses loaded");
+		}
+		
+		/**
+		 * Hides the progress of the catalog load once it is finished or cancelled.
+		 */
+		private void hideLoadProgress() {
+			pnlLoading.setVisible(false);
 		}
 		
 		/**
@@ -684,19 +939,27 @@ public class WolfSchedulerGUI extends JFrame {
 		
 		/**
 		 * {@link CourseTableModel} is the object underlying the {@link JTable} object that displays
-		 * the list of {@link Course}s to the user.
+		 * the list of {@link Course}s to the user.  The catalog is never copied into the model, its
+		 * cells are read from the {@link WolfScheduler} as the table draws them.  The model listens
+		 * to the schedule, so the schedule table only redraws the rows that change.
 		 * @author Sarah Heckman
 		 */
-		private class CourseTableModel extends AbstractTableModel {
+		private class CourseTableModel extends AbstractTableModel implements ScheduleListener {
 			
 			/** ID number used for object serialization. */
 			private static final long serialVersionUID = 1L;
 			/** Column names for the table */
 			private String [] columnNames = {"Name", "Section", "Title", "Meeting Information"};
-			/** Data stored in the table */
-			private Object [][] data;
+			/** Data stored in the table for the schedule */
+			private ArrayList<Object []> data = new ArrayList<Object []>();
 			/** Boolean flag if the model applies to the catalog or schedule */
 			private boolean catalog;
+			/** Catalog rows of the courses that fit in the schedule, or null if not filtering by fit */
+			private int [] fittingRows;
+			/** Catalog rows of the courses matching the search, or null if not searching */
+			private int [] searchRows;
+			/** Catalog rows shown in the table, or null if every course is shown */
+			private int [] rows;
 			
 			/**
 			 * Constructs the {@link CourseTableModel} by requesting the latest information
@@ -706,6 +969,7 @@ public class WolfSchedulerGUI extends JFrame {
 			public CourseTableModel(boolean catalog) {
 				this.catalog = catalog;
 				updateData();
+				scheduler.addScheduleListener(this);
 			}
 
 			/**
@@ -721,9 +985,10 @@ public class WolfSchedulerGUI extends JFrame {
 			 * @return the number of rows in the table.
 			 */
 			public int getRowCount() {
-				if (data == null) 
-					return 0;
-				return data.length;
+				if (catalog) {
+					return rows == null ? scheduler.getCatalogSize() : rows.length;
+				}
+				return data.size();
 			}
 			
 			/**
@@ -742,23 +1007,27 @@ public class WolfSchedulerGUI extends JFrame {
 			 * @return the data at the given location.
 			 */
 			public Object getValueAt(int row, int col) {
-				if (data == null)
-					return null;
 				try {
-					return data[row][col];
-				} catch (ArrayIndexOutOfBoundsException e) {
+					if (catalog) {
+						return scheduler.getCatalogValueAt(rows == null ? row : rows[row], col);
+					}
+					return data.get(row)[col];
+				} catch (IndexOutOfBoundsException e) {
 					return null;
 				}
 			}
 			
 			/**
-			 * Sets the given value to the given {row, col} location.
+			 * Sets the given value to the given {row, col} location.  The catalog is read from
+			 * the {@link WolfScheduler} and cannot be changed.
 			 * @param value Object to modify in the data.
 			 * @param row location to modify the data.
 			 * @param col location to modify the data.
 			 */
 			public void setValueAt(Object value, int row, int col) {
-				data[row][col] = value;
+				if (catalog)
+					return;
+				data.get(row)[col] = value;
 				fireTableCellUpdated(row, col);
 			}
 			
@@ -766,10 +1035,135 @@ public class WolfSchedulerGUI extends JFrame {
 			 * Updates the given model with {@link Course} information from the {@link WolfScheduler}.
 			 */
 			private void updateData() {
-				if (catalog) {
-					data = scheduler.getCourseCatalog();
+				if (!catalog) {
+					data.clear();
+					for (String [] row : scheduler.getScheduledActivities()) {
+						data.add(toRow(row));
+					}
+					fireTableDataChanged();
+					return;
+				}
+				boolean wasFiltered = fittingRows != null;
+				if (cbFittingOnly != null && cbFittingOnly.isSelected()) {
+					fittingRows = scheduler.getFittingCatalogRows();
+				} else {
+					fittingRows = null;
+				}
+				if (fittingRows != null || wasFiltered) {
+					//The filtered rows change with the schedule, so the table has to be redrawn
+					updateRows();
+				}
+			}
+			
+			/**
+			 * Shows only the courses matching a search, along with the fitting filter.
+			 * @param searchRows catalog rows of the matching courses, or null to stop searching
+			 */
+			private void setSearchRows(int [] searchRows) {
+				this.searchRows = searchRows;
+				updateRows();
+			}
+			
+			/**
+			 * Shows the courses passing both the fitting filter and the search, and redraws
+			 * the table.
+			 */
+			private void updateRows() {
+				if (fittingRows == null) {
+					rows = searchRows;
+				} else if (searchRows == null) {
+					rows = fittingRows;
 				} else {
-					data = scheduler.getScheduledActivities();
+					//Both are in catalog order, so walk them together
+					int [] both = new int[Math.min(fittingRows.length, searchRows.length)];
+					int count = 0;
+					int i = 0;
+					int j = 0;
+					while (i < fittingRows.length && j < searchRows.length) {
+						if (fittingRows[i] < searchRows[j]) {
+							i++;
+						} else if (fittingRows[i] > searchRows[j]) {
+							j++;
+						} else {
+							both[count++] = fittingRows[i];
+							i++;
+							j++;
+						}
+					}
+					rows = Arrays.copyOf(both, count);
+				}
+				fireTableDataChanged();
+			}
+			
+			/**
+			 * Shows the rows of courses just added to the end of the catalog, refiltering the
+			 * catalog if only the courses that fit are shown.  A search is run again by the
+			 * panel once the courses are added.
+			 * @param first catalog row of the first course added
+			 * @param last catalog row of the last course added
+			 */
+			private void catalogRowsAdded(int first, int last) {
+				if (fittingRows != null) {
+					updateData();
+				} else if (rows == null && last >= first) {
+					fireTableRowsInserted(first, last);
+				}
+			}
+			
+			/**
+			 * Adds the row of the new activity to the schedule table, or refilters the catalog.
+			 * @param index of the activity in the schedule
+			 * @param activity that was added
+			 */
+			@Override
+			public void activityAdded(int index, Activity activity) {
+				if (catalog) {
+					updateData();
+					return;
+				}
+				data.add(index, toRow(activity.getShortDisplayArray()));
+				fireTableRowsInserted(index, index);
+			}
+			
+			/**
+			 * Removes the row of the activity from the schedule table, or refilters the catalog.
+			 * @param index the activity had in the schedule
+			 * @param activity that was removed
+			 */
+			@Override
+			public void activityRemoved(int index, Activity activity) {
+				if (catalog) {
+					updateData();
+					return;
+				}
+				data.remove(index);
+				fireTableRowsDeleted(index, index);
+			}
+			
+			/**
+			 * Removes every row from the schedule table, or refilters the catalog.
+			 */
+			@Override
+			public void scheduleReset() {
+				if (catalog) {
+					updateData();
+					return;
+				}
+				int rows = data.size();
+				data.clear();
+				if (rows > 0) {
+					fireTableRowsDeleted(0, rows - 1);
+				}
+			}
+			
+			/**
+			 * Shows the new title above the schedule table.
+			 * @param title new title of the schedule
+			 */
+			@Override
+			public void scheduleTitleChanged(String title) {
+				if (!catalog) {
+					borderSchedule.setTitle(title);
 				}
 			}
 		}
@@ -866,27 +1260,28 @@ public class WolfSchedulerGUI extends JFrame {
 		}
 		
 		/**
-		 * Updates the finalized schedule table
+		 * Updates the title of the finalized schedule table.  The rows are kept up to date by
+		 * the {@link FullCourseTableModel} as the schedule changes.
 		 */
 		public void updateFinalizedTable() {
-			scheduleTableModel.updateData();
 			borderSchedule.setTitle(scheduler.getScheduleTitle());
 			scrollSchedule.setToolTipText(scheduler.getScheduleTitle());
 		}
 		
 		/**
 		 * {@link FullCourseTableModel} is the object underlying the {@link JTable} object that displays
-		 * the list of {@link Course}s, and all their data, to the user.
+		 * the list of {@link Course}s, and all their data, to the user.  The model listens to the
+		 * schedule, so the table only redraws the rows that change.
 		 * @author Sarah Heckman
 		 */
-		private class FullCourseTableModel extends AbstractTableModel {
+		private class FullCourseTableModel extends AbstractTableModel implements ScheduleListener {
 			
 			/** ID number used for object serialization. */
 			private static final long serialVersionUID = 1L;
 			/** Column names for the table */
 			private String [] columnNames = {"Name", "Section", "Title", "Credits", "Instructor", "Meeting Information", "Details"};
 			/** Data stored in the table */
-			private Object [][] data;
+			private ArrayList<Object []> data = new ArrayList<Object []>();
 			
 			/**
 			 * Constructs the {@link CourseTableModel} by requesting the latest information
@@ -894,6 +1289,7 @@ public class WolfSchedulerGUI extends JFrame {
 			 */
 			public FullCourseTableModel() {
 				updateData();
+				scheduler.addScheduleListener(this);
 			}
 
 			/**
@@ -909,9 +1305,7 @@ public class WolfSchedulerGUI extends JFrame {
 			 * @return the number of rows in the table.
 			 */
 			public int getRowCount() {
-				if (data == null) 
-					return 0;
-				return data.length;
+				return data.size();
 			}
 			
 			/**
@@ -930,11 +1324,9 @@ public class WolfSchedulerGUI extends JFrame {
 			 * @return the data at the given location.
 			 */
 			public Object getValueAt(int row, int col) {
-				if (data == null)
-					return null;
 				try {
-					return data[row][col];
-				} catch (ArrayIndexOutOfBoundsException e) {
+					return data.get(row)[col];
+				} catch (IndexOutOfBoundsException e) {
 					return null;
 				}
 			}
@@ -946,7 +1338,7 @@ public class WolfSchedulerGUI extends JFrame {
 			 * @param col location to modify the data.
 			 */
 			public void setValueAt(Object value, int row, int col) {
-				data[row][col] = value;
+				data.get(row)[col] = value;
 				fireTableCellUpdated(row, col);
 			}
 			
@@ -954,7 +1346,54 @@ public class WolfSchedulerGUI extends JFrame {
 			 * Updates the given model with {@link Course} information from the {@link WolfScheduler}.
 			 */
 			private void updateData() {
-				data = scheduler.getFullScheduledActivities();
+				data.clear();
+				for (String [] row : scheduler.getFullScheduledActivities()) {
+					data.add(toRow(row));
+				}
+				fireTableDataChanged();
+			}
+			
+			/**
+			 * Adds the row of the new activity to the table.
+			 * @param index of the activity in the schedule
+			 * @param activity that was added
+			 */
+			@Override
+			public void activityAdded(int index, Activity activity) {
+				data.add(index, toRow(activity.getLongDisplayArray()));
+				fireTableRowsInserted(index, index);
+			}
+			
+			/**
+			 * Removes the row of the activity from the table.
+			 * @param index the activity had in the schedule
+			 * @param activity that was removed
+			 */
+			@Override
+			public void activityRemoved(int index, Activity activity) {
+				data.remove(index);
+				fireTableRowsDeleted(index, index);
+			}
+			
+			/**
+			 * Removes every row from the table.
+			 */
+			@Override
+			public void scheduleReset() {
+				int rows = data.size();
+				data.clear();
+				if (rows > 0) {
+					fireTableRowsDeleted(0, rows - 1);
+				}
+			}
+			
+			/**
+			 * Shows the new title above the table.
+			 * @param title new title of the schedule
+			 */
+			@Override
+			public void scheduleTitleChanged(String title) {
+				updateFinalizedTable();
 			}
 		}
 		